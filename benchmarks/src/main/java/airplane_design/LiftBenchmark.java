@@ -0,0 +1,150 @@
+package airplane_design;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ga_engine.DoubleFitness;
+import ga_engine.FlatDoubleEngine;
+import ga_engine.GeneticEngine;
+
+// The forks get the incubator module so the vector kernel can be measured against the scalar one
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LiftBenchmark {
+
+    // Single airliners for the per-chromosome fitness and the crossover
+    @State(Scope.Thread)
+    public static class Operators {
+        RandomGenerator random;
+        Chromosome parent1;
+        Chromosome parent2;
+        Chromosome child1;
+        Chromosome child2;
+        Lift lift;
+
+        @Setup
+        public void setup() {
+            random = new SplittableRandom(42);
+            parent1 = Chromosome.random(random);
+            parent2 = Chromosome.random(random);
+            child1 = parent1.copy();
+            child2 = parent2.copy();
+            lift = new Lift();
+        }
+    }
+
+    // Random airliners in the five gene columns, scored in one pass
+    @State(Scope.Thread)
+    public static class Columns {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int size;
+
+        double[][] columns;
+        double[] fitness;
+        DoubleFitness scalar;
+        DoubleFitness vector;
+
+        @Setup
+        public void setup() {
+            SplittableRandom random = new SplittableRandom(42);
+            columns = new double[Chromosome.MIN.length][size];
+            for (int g = 0; g < columns.length; g++) {
+                for (int i = 0; i < size; i++) {
+                    columns[g][i] = random.nextDouble() * (Chromosome.MAX[g] - Chromosome.MIN[g]) + Chromosome.MIN[g];
+                }
+            }
+            fitness = new double[size];
+            scalar = new Lift();
+            vector = Lift.vectorKernel();
+        }
+    }
+
+    // ODA's flat engine, two children per generation replace the two worst airliners
+    @State(Scope.Thread)
+    public static class FlatGeneration {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        FlatDoubleEngine ga;
+
+        @Setup
+        public void setup() {
+            ga = ODA.newFlatEngine(populationSize);
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    // The object engine the islands use, same operators on Chromosome instances
+    @State(Scope.Thread)
+    public static class ObjectGeneration {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        GeneticEngine<Chromosome> ga;
+
+        @Setup
+        public void setup() {
+            ga = ODA.newEngine(populationSize);
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    @Benchmark
+    public double fitness(Operators state) {
+        return state.lift.evaluate(state.parent1);
+    }
+
+    @Benchmark
+    public int crossover(Operators state) {
+        return Chromosome.crossover(state.parent1, state.parent2, state.child1, state.child2, state.random);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double[] scalarKernel(Columns state) {
+        state.scalar.evaluate(state.columns, 0, state.size, state.fitness);
+        return state.fitness;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double[] vectorKernel(Columns state) {
+        state.vector.evaluate(state.columns, 0, state.size, state.fitness);
+        return state.fitness;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int flatGeneration(FlatGeneration state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int objectGeneration(ObjectGeneration state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+}
@@ -0,0 +1,91 @@
+package engine_power;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ga_engine.DoubleFitness;
+import ga_engine.FlatDoubleEngine;
+
+// The forks get the incubator module so the vector kernel can be measured against the scalar one
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class PowerBenchmark {
+
+    // Random engines in the four gene columns, scored in one pass
+    @State(Scope.Thread)
+    public static class Columns {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int size;
+
+        double[][] columns;
+        double[] fitness;
+        DoubleFitness scalar;
+        DoubleFitness vector;
+
+        @Setup
+        public void setup() {
+            SplittableRandom random = new SplittableRandom(42);
+            columns = new double[4][size];
+            for (double[] column : columns) {
+                for (int i = 0; i < size; i++) {
+                    column[i] = random.nextDouble();
+                }
+            }
+            fitness = new double[size];
+            scalar = prva::calculateFitness;
+            vector = prva.vectorKernel();
+        }
+    }
+
+    // prva's engine: one child per generation replaces the worst engine
+    @State(Scope.Thread)
+    public static class Generation {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        FlatDoubleEngine ga;
+
+        @Setup
+        public void setup() {
+            ga = prva.newEngine(populationSize);
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    @Benchmark
+    public double[] scalarKernel(Columns state) {
+        state.scalar.evaluate(state.columns, 0, state.size, state.fitness);
+        return state.fitness;
+    }
+
+    @Benchmark
+    public double[] vectorKernel(Columns state) {
+        state.vector.evaluate(state.columns, 0, state.size, state.fitness);
+        return state.fitness;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int generation(Generation state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+}
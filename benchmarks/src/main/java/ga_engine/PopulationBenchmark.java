@@ -0,0 +1,121 @@
+package ga_engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Engine operators on their own, independent of any problem: the population holds
+// one-gene genomes with random fitness
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopulationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    int size;
+
+    private Population<Point> population;
+    private TournamentSelection<Point> tournament;
+    private RouletteSelection<Point> roulette;
+    private StochasticUniversalSampling<Point> universal;
+    private RandomGenerator random;
+    private Individual<Point> child;
+
+    @Setup
+    public void setup() {
+        random = new SplittableRandom(42);
+        population = new Population<>(size, Point::new, random);
+        population.evaluate(point -> point.x);
+        tournament = new TournamentSelection<>(5);
+        roulette = new RouletteSelection<>();
+        roulette.prepare(population, random);
+        universal = new StochasticUniversalSampling<>();
+        universal.prepare(population, random);
+        child = new Individual<>(new Point(random));
+    }
+
+    @Benchmark
+    public Individual<Point> tournamentSelect() {
+        return tournament.select(population, random);
+    }
+
+    @Benchmark
+    public int tournamentSelectIndex() {
+        return tournament.selectIndex(population, random);
+    }
+
+    // One draw from the alias table, O(1) at any size
+    @Benchmark
+    public int rouletteSelect() {
+        return roulette.selectIndex(population, random);
+    }
+
+    @Benchmark
+    public int universalSelect() {
+        return universal.selectIndex(population, random);
+    }
+
+    // The O(N) table builds that run once per generation
+    @Benchmark
+    public RouletteSelection<Point> roulettePrepare() {
+        roulette.prepare(population, random);
+        return roulette;
+    }
+
+    @Benchmark
+    public StochasticUniversalSampling<Point> universalPrepare() {
+        universal.prepare(population, random);
+        return universal;
+    }
+
+    // The evicted individual comes back as the next child, so nothing is allocated
+    @Benchmark
+    public Individual<Point> replaceWorst() {
+        child.setFitness(random.nextDouble());
+        child = population.replaceWorst(child);
+        return child;
+    }
+
+    @Benchmark
+    public Individual<Point> getBest() {
+        return population.getBest();
+    }
+
+    static final class Point implements Genome {
+        final double x;
+
+        Point(RandomGenerator random) {
+            this.x = random.nextDouble();
+        }
+
+        private Point(double x) {
+            this.x = x;
+        }
+
+        @Override
+        public int length() {
+            return 1;
+        }
+
+        @Override
+        public Point copy() {
+            return new Point(x);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package general_ga_implementation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ga_engine.GeneticEngine;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OneMaxBenchmark {
+
+    // Operators scale with the chromosome length, not the population
+    @State(Scope.Thread)
+    public static class Operators {
+        @Param({"64", "10000", "1000000"})
+        int length;
+
+        RandomGenerator random;
+        Chromosome parent1;
+        Chromosome parent2;
+        Chromosome child;
+        OneMax oneMax;
+
+        @Setup
+        public void setup() {
+            random = new SplittableRandom(42);
+            parent1 = Chromosome.random(length, random);
+            parent2 = Chromosome.random(length, random);
+            child = parent1.copy();
+            oneMax = new OneMax();
+        }
+    }
+
+    // GeneticAlgorithm's engine with a 10-bit chromosome at growing population sizes
+    @State(Scope.Thread)
+    public static class Generation {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        GeneticEngine<Chromosome> ga;
+
+        @Setup
+        public void setup() {
+            ga = GeneticAlgorithm.newEngine(populationSize, 10);
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    @Benchmark
+    public double fitness(Operators state) {
+        return state.oneMax.evaluate(state.parent1);
+    }
+
+    @Benchmark
+    public int crossover(Operators state) {
+        return Chromosome.crossover(state.parent1, state.parent2, state.child, null, state.random);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int generation(Generation state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+}
@@ -0,0 +1,126 @@
+package resource_allocation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ga_engine.GeneticEngine;
+
+// Both resource allocation models: the Manager with products and prices, and the
+// three-resource micro GA
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceAllocationBenchmark {
+
+    // The manager and allocations from ResourceAllocation's main
+    @State(Scope.Thread)
+    public static class Operators {
+        RandomGenerator random;
+        Manager manager;
+        Resource parent1;
+        Resource parent2;
+        Resource child;
+        MicroGeneticAlgorithm.ResourceAllocation microParent1;
+        MicroGeneticAlgorithm.ResourceAllocation microParent2;
+        MicroGeneticAlgorithm.ResourceAllocation microChild;
+
+        @Setup
+        public void setup() {
+            random = new SplittableRandom(42);
+            manager = ResourceAllocation.newManager();
+            parent1 = manager.create(random);
+            parent2 = manager.create(random);
+            child = parent1.copy();
+            microParent1 = MicroGeneticAlgorithm.randomAllocation(random);
+            microParent2 = MicroGeneticAlgorithm.randomAllocation(random);
+            microChild = microParent1.copy();
+        }
+    }
+
+    // ResourceAllocation's engine: elites survive, the rest of the population is bred
+    // and scored through the fitness cache every generation
+    @State(Scope.Thread)
+    public static class ManagerGeneration {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        GeneticEngine<Resource> ga;
+
+        @Setup
+        public void setup() {
+            Manager manager = ResourceAllocation.newManager();
+            ga = ResourceAllocation.newEngine(populationSize, manager, ResourceAllocation.newCache(manager));
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MicroGeneration {
+        @Param({"100", "1000", "10000", "100000", "1000000"})
+        int populationSize;
+
+        GeneticEngine<MicroGeneticAlgorithm.ResourceAllocation> ga;
+
+        @Setup
+        public void setup() {
+            ga = MicroGeneticAlgorithm.newEngine(populationSize, new MicroGeneticAlgorithm.Repairs());
+            ga.setRandom(new SplittableRandom(42));
+            ga.initialize();
+        }
+    }
+
+    @Benchmark
+    public double[] evalProfit(Operators state) {
+        return state.manager.evalProfit(state.parent1);
+    }
+
+    @Benchmark
+    public double fitness(Operators state) {
+        return state.manager.evaluate(state.parent1);
+    }
+
+    // Crossover, mutation and budget repair of one child
+    @Benchmark
+    public int crossover(Operators state) {
+        return state.manager.crossover(state.parent1, state.parent2, state.child, null, state.random);
+    }
+
+    @Benchmark
+    public int microCrossover(Operators state) {
+        return MicroGeneticAlgorithm.crossover(state.microParent1, state.microParent2, state.microChild, null,
+                state.random);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int generation(ManagerGeneration state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int microGeneration(MicroGeneration state) {
+        state.ga.step();
+        return state.ga.getGeneration();
+    }
+
+}
@@ -0,0 +1,37 @@
+package airplane_design;
+
+import ga_engine.DoubleFitness;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Lift over whole SIMD lanes of designs, same operation order as Lift so both
+// kernels give identical fitness
+class LiftVectorKernel implements DoubleFitness {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final DoubleFitness scalar;
+    private final double rho;
+
+    LiftVectorKernel(DoubleFitness scalar, double rho) {
+        this.scalar = scalar;
+        this.rho = rho;
+    }
+
+    @Override
+    public void evaluate(double[][] columns, int from, int to, double[] fitness) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, columns[0], i);
+            DoubleVector s = DoubleVector.fromArray(SPECIES, columns[1], i);
+            DoubleVector alpha = DoubleVector.fromArray(SPECIES, columns[2], i);
+            DoubleVector e = DoubleVector.fromArray(SPECIES, columns[3], i);
+            DoubleVector ar = DoubleVector.fromArray(SPECIES, columns[4], i);
+            // cl = (2*pi*alpha) / (1 + pi*e*ar)
+            DoubleVector cl = alpha.mul(2 * Math.PI).div(e.mul(Math.PI).mul(ar).add(1));
+            v.mul(v).mul(.5 * rho).mul(s).mul(cl).intoArray(fitness, i);
+        }
+        // Tail that does not fill a whole vector
+        scalar.evaluate(columns, i, to, fitness);
+    }
+}
@@ -1,56 +1,124 @@
 package airplane_design;
 
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.random.RandomGenerator;
+
+import ga_engine.DoubleFitness;
+import ga_engine.FitnessFunction;
+import ga_engine.FlatCheckpoint;
+import ga_engine.FlatDoubleEngine;
+import ga_engine.GeneticEngine;
+import ga_engine.Genome;
+import ga_engine.Individual;
+import ga_engine.IslandModel;
+import ga_engine.ParallelEvaluator;
+import ga_engine.ReplaceWorst;
+import ga_engine.Surrogate;
+import ga_engine.Termination;
+import ga_engine.TournamentSelection;
+import ga_engine.VectorSupport;
 
 
 public class ODA {
     private static final int POPULATION_SIZE = 150;
     private static final int MAX_GENERATIONS = 100;
-    
-    public static void main(String[] args) {
+    private static final int STAGNATION_WINDOW = 50;
+    private static final int PRINT_INTERVAL = 1;
+    private static final int CHECKPOINT_INTERVAL = 10;
+    private static final String CHECKPOINT_FILE = "oda.checkpoint";
+    
+    // Surrogate pre-screening for an expensive lift model: only this share of the children
+    // gets a real evaluation, 1 evaluates all of them
+    private static final double EXACT_FRACTION = 1.0;
+    private static final int NEIGHBOURS = 5;
+    private static final int SURROGATE_CAPACITY = 4096;
+    
+    // Island mode: more than one island evolves that many populations in parallel
+    private static final int ISLANDS = 1;
+    private static final int MIGRATION_INTERVAL = 10;
+    
+    public static void main(String[] args) throws IOException {
         
-        // Initialize population
-        Population population = new Population(POPULATION_SIZE);
+        if (ISLANDS > 1) {
+            runIslands();
+            return;
+        }
         
-        // Evaluate initial fitness
-        population.evaluate();
+        // Initialize population: one flat column per gene, tournament of 10,
+        // two children replace the two worst individuals
+        FlatDoubleEngine ga = newFlatEngine(POPULATION_SIZE);
+        Surrogate surrogate = null;
+        if (EXACT_FRACTION < 1) {
+            surrogate = new Surrogate(Chromosome.MIN, Chromosome.MAX, NEIGHBOURS, SURROGATE_CAPACITY, EXACT_FRACTION);
+            ga.setSurrogate(surrogate);
+        }
         
-        // Initialize the counter for stopping criteria
-        int generation = 1;
+        // Print the best fitness every PRINT_INTERVAL generations
+        ga.setListener(metrics -> System.out.println("Generation: " + metrics.getGeneration()
+                + " with best fitness: " + metrics.getBest()), PRINT_INTERVAL);
         
-        // Main evolution loop
-        while (generation <= MAX_GENERATIONS) {
-            
-            // Print current generation
-            System.out.print("Generation: " + generation);
-            
-            // Select parents
-            Chromosome parent1 = population.select();
-            Chromosome parent2 = population.select();
+        // Checkpoint every CHECKPOINT_INTERVAL generations, an interrupted run continues from the last one
+        Path checkpointFile = Path.of(CHECKPOINT_FILE);
+        try (FlatCheckpoint checkpoint = new FlatCheckpoint(checkpointFile, POPULATION_SIZE, Chromosome.MIN.length)) {
             
-            // Crossover
-            Chromosome[] children = parent1.crossover(parent2);
-            
-            // Replace x worst individuals with x children
-            for (Chromosome child : children){
-                population.replaceWorst(child);
+            // Evaluate initial fitness, unless there is a checkpoint to resume from
+            if (!checkpoint.restore(ga)) {
+                ga.initialize();
             }
             
-            // Evaluate new fitness
-            population.evaluate();
-            
-            // Print best fitness
-            System.out.print(" with best fitness: " + population.getBestFitnessIndividual().getFitness() + "\n");
-            
-            generation++;
+            // Main evolution loop: select parents, crossover, replace x worst individuals with x children,
+            // evaluate new fitness. Stop at MAX_GENERATIONS or once the lift has not improved for
+            // STAGNATION_WINDOW generations
+            Termination stop = Termination.generations(MAX_GENERATIONS)
+                    .or(Termination.stagnation(STAGNATION_WINDOW, 0));
+            while (!ga.isDone(stop)) {
+                ga.step();
+                if (ga.getGeneration() % CHECKPOINT_INTERVAL == 0) {
+                    checkpoint.save(ga);
+                }
+            }
+        }
+        // The run is complete, the next one starts from scratch
+        Files.deleteIfExists(checkpointFile);
+        
+        new Chromosome(ga.getBestGenes()).getInfo();
+        if (surrogate != null) {
+            System.out.println("Surrogate: " + surrogate);
         }
+    }
+    
+    static FlatDoubleEngine newFlatEngine(int populationSize) {
+        return new FlatDoubleEngine(populationSize, Chromosome.MIN, Chromosome.MAX, Lift.kernel(), 10, 2);
+    }
+    
+    // Object-based engine for the islands: tournament of 10, two children replace the two worst individuals
+    static GeneticEngine<Chromosome> newEngine(int populationSize) {
+        GeneticEngine<Chromosome> ga = new GeneticEngine<>(populationSize,
+                Chromosome::random,
+                new Lift(),
+                new TournamentSelection<>(10),
+                Chromosome::crossover,
+                new ReplaceWorst<>(2));
+        ga.setEvaluator(new ParallelEvaluator<>());
+        ga.setPooling(true);
+        return ga;
+    }
+    
+    // ISLANDS populations on their own threads, best individuals migrate around a ring
+    private static void runIslands() {
+        IslandModel<Chromosome> islands = new IslandModel<>(ISLANDS, island -> newEngine(POPULATION_SIZE),
+                IslandModel.Topology.RING, MIGRATION_INTERVAL);
+        Individual<Chromosome> best = islands.run(MAX_GENERATIONS);
         
-        population.getBestFitnessIndividual().getInfo();
+        System.out.println("Best fitness over " + ISLANDS + " islands: " + best.getFitness());
+        best.getGenome().getInfo();
     }
     
 }
 
-class Chromosome {
+class Chromosome implements Genome {
     
     /** Each chromosome has genes array storing its parameters like this:
      * genes[0] ... Speed of the aircarft
@@ -62,47 +130,56 @@ class Chromosome {
      * This corresponds to value encoding.
      * */
     private double[] genes;
-    private double fitness;
-    private Random random;
+    
+    // Gene ranges for an airliner
+    static final double[] MIN = {50, 60, 0.1, 0.1, 5};
+    static final double[] MAX = {350, 200, 0.43, 1, 15};
     
     // Constructor
     public Chromosome(double[] genes) {
         this.genes = genes;
-        this.random = new Random();
     }
     
-    // Getters and fitness-setter
+    // Random chromosome within the airliner ranges
+    public static Chromosome random(RandomGenerator random) {
+        double[] genes = new double[5];
+        for (int i = 0; i < genes.length; i++) {
+            genes[i] = random.nextDouble() * (MAX[i] - MIN[i]) + MIN[i];
+        }
+        return new Chromosome(genes);
+    }
+    
+    // Getters
     public double[] getGenes() {
         return genes;
     }
     
-    public double getFitness() {
-        return fitness;
+    @Override
+    public int length() {
+        return genes.length;
     }
     
-    public void setFitness(double fitness) {
-        this.fitness = fitness;
+    @Override
+    public Chromosome copy() {
+        return new Chromosome(genes.clone());
     }
     
     // Uniform Crossover with *random* mask
-    public Chromosome[] crossover(Chromosome other) {
-        double[] childGenes = new double[genes.length];
-        double[] otherChildGenes = new double[genes.length];
+    public static int crossover(Chromosome parent1, Chromosome parent2, Chromosome child, Chromosome otherChild,
+            RandomGenerator random) {
+        double[] childGenes = child.genes;
+        double[] otherChildGenes = otherChild.genes;
 
         for (int i = 0; i < childGenes.length; i++) {
             boolean mask = random.nextBoolean();
 
             // Mask bit stays unchanged for both assignments => children inherit from different parents
-            childGenes[i] = mask ? this.getGenes()[i] : other.getGenes()[i];
-            otherChildGenes[i] = mask ? other.getGenes()[i] : this.getGenes()[i];
+            childGenes[i] = mask ? parent1.getGenes()[i] : parent2.getGenes()[i];
+            otherChildGenes[i] = mask ? parent2.getGenes()[i] : parent1.getGenes()[i];
           
         }
 
-        Chromosome first_child = new Chromosome(childGenes);
-        Chromosome second_child = new Chromosome(otherChildGenes);
-        Chromosome[] children = {first_child, second_child};
-
-        return children;
+        return 2;
     }
     
     public void getInfo() {
@@ -117,94 +194,41 @@ class Chromosome {
     
 }
 
-class Population {
+// Fitness function for lift, per chromosome or over the gene columns of a DoublePopulation
+class Lift implements FitnessFunction<Chromosome>, DoubleFitness {
     
-    public Chromosome[] individuals;
-    private Random random;
+    private static final double RHO = 1.293;
     
-    private double random(double min, double max) {
-    	return Math.random() * (max - min) + min;
+    // SIMD lift kernel when the Vector API module is present, scalar loop otherwise
+    static DoubleFitness kernel() {
+    	return VectorSupport.select(Lift::vectorKernel, new Lift());
     }
     
-    public Population(int size) {
-        individuals = new Chromosome[size];
-        random = new Random();
-        for (int i = 0; i < size; i++) {
-            double[] genes = new double[5];
-            
-            genes[0] = random(50,350); //SPEED
-            genes[1] = random(60,200); //WING AREA
-            genes[2] = random(0.1,0.43); //ANGLE OF ATTACK
-            genes[3] = random(0.1,1); // OSWALD EFF. FACTOR
-            genes[4] = random(5,15); // WING ASPECT RATIO
-            
-            
-            individuals[i] = new Chromosome(genes);
-        }
+    static DoubleFitness vectorKernel() {
+    	return new LiftVectorKernel(new Lift(), RHO);
     }
     
-    // Compute and assign fitness to all Individuals in Population
-    public void evaluate() {
-        for (Chromosome individual : individuals) {
-            double fitness = evaluate(individual); //compute fitness for chrom.
-            individual.setFitness(fitness); //assign it
-        }
-    }
-    
-    // Compute a fitness function for a specific individual
-    private double evaluate(Chromosome individual) {
-    	//Fitness function for lift
+    @Override
+    public double evaluate(Chromosome individual) {
     	double[] genes = individual.getGenes();
-    	double v = genes[0];
-    	double s = genes[1];
-    	double alpha = genes[2];
-    	double e = genes[3];
-    	double ar = genes[4];
-    	
-    	final double RHO = 1.293;
-    	double cl = ((2*Math.PI*alpha)/(1 + (Math.PI*e*ar)));
-    	double fitness = .5 * RHO * (v*v) * s * cl;
-
-        return fitness;
-    }
-    
-    public Chromosome select() {
-    	// Choose five random individuals and choose the best one of them - Tournament Selection
-        Chromosome best = null;
-
-        for (int i = 0; i < 10; i++) {
-            Chromosome individual = individuals[random.nextInt(individuals.length)];
-            if (best == null || individual.getFitness() > best.getFitness()) {
-                best = individual;
-            }
-        }
-
-        return best;
+    	return lift(genes[0], genes[1], genes[2], genes[3], genes[4]);
     }
     
-    // Find worst child index a replace that position with new child
-    public void replaceWorst(Chromosome child) {
-        int worstIndex = 0;
-        double worstFitness = Double.MAX_VALUE;
-        for (int i = 0; i < individuals.length; i++) {
-            if (individuals[i].getFitness() < worstFitness) {
-                worstIndex = i;
-                worstFitness = individuals[i].getFitness();
-            }
-        }
-        individuals[worstIndex] = child;
+    @Override
+    public void evaluate(double[][] columns, int from, int to, double[] fitness) {
+    	double[] v = columns[0];
+    	double[] s = columns[1];
+    	double[] alpha = columns[2];
+    	double[] e = columns[3];
+    	double[] ar = columns[4];
+    	for (int i = from; i < to; i++) {
+    		fitness[i] = lift(v[i], s[i], alpha[i], e[i], ar[i]);
+    	}
     }
     
-    // Extract an individual with best fitness score
-    public Chromosome getBestFitnessIndividual() {
-        Chromosome best = individuals[0];
-        for (Chromosome individual : individuals) {
-            if (individual.getFitness() > best.getFitness()) {
-                best = individual;
-            }
-        }
-        return best;
+    private static double lift(double v, double s, double alpha, double e, double ar) {
+    	double cl = ((2*Math.PI*alpha)/(1 + (Math.PI*e*ar)));
+    	return .5 * RHO * (v*v) * s * cl;
     }
     
 }
-
@@ -1,11 +1,24 @@
 package engine_power;
-import java.util.Random;
 
-public class prva {
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import ga_engine.DoubleFitness;
+import ga_engine.FlatDoubleEngine;
+import ga_engine.Termination;
+import ga_engine.TraceReader;
+import ga_engine.TraceRecord;
+import ga_engine.TraceWriter;
+import ga_engine.VectorSupport;
+
+class prva {
     private static final double PI = Math.PI;
     private static final int POPULATION_SIZE = 100;
     private static final int NUM_GENERATIONS = 100;
+    private static final int STAGNATION_WINDOW = 50;
     private static final int TOURNAMENT_SIZE = 5; // Tournament size for selection
+    private static final String TRACE_FILE = "power_trace.csv";
 
     private static final int cylindersnumber = 4;
 
@@ -18,73 +31,27 @@ public class prva {
     private static final double MIN_REVS = 3500;
     private static final double MAX_REVS = 4000;
 
-    private static final Random random = new Random();
+    public static void main(String[] args) throws IOException {
+        FlatDoubleEngine ga = newEngine(POPULATION_SIZE);
 
-    public static void main(String[] args) {
-        // Initialize population
-        double[][] population = new double[POPULATION_SIZE][4];
-        for (int i = 0; i < POPULATION_SIZE; i++) {
-            population[i][0] = random.nextDouble() * (MAX_VALVE_MEP - MIN_VALVE_MEP) + MIN_VALVE_MEP;
-            population[i][1] = random.nextDouble() * (MAX_STROKE_LENGTH - MIN_STROKE_LENGTH) + MIN_STROKE_LENGTH;
-            population[i][2] = random.nextDouble() * (MAX_BORE - MIN_BORE) + MIN_BORE;
-            population[i][3] = random.nextDouble() * (MAX_REVS - MIN_REVS) + MIN_REVS;
+        // Record the best fitness of every generation in TRACE_FILE, off the engine thread
+        Path trace = Path.of(TRACE_FILE);
+        try (TraceWriter writer = new TraceWriter(trace, TraceWriter.Format.CSV)) {
+            ga.setListener(writer, 1);
+            ga.initialize();
+
+            // Run genetic algorithm: select parents, crossover, replace worst and evaluate fitness of the offspring.
+            // Stop after NUM_GENERATIONS, or once the best power has not moved for STAGNATION_WINDOW generations
+            ga.run(Termination.generations(NUM_GENERATIONS).or(Termination.stagnation(STAGNATION_WINDOW, 0)));
         }
 
-        // Run genetic algorithm
-        for (int generation = 0; generation < NUM_GENERATIONS; generation++) {
-            // Evaluate fitness of population
-            double[] fitness = new double[POPULATION_SIZE];
-            for (int i = 0; i < POPULATION_SIZE; i++) {
-                double[] engineParams = population[i];
-
-                fitness[i] = calculateFitness(engineParams);
-            }
-
-            // Select parents for crossover
-            double[][] parents = new double[POPULATION_SIZE][4];
-            parents[0] = tournamentSelection(population, fitness, TOURNAMENT_SIZE);
-            parents[1] = tournamentSelection(population, fitness, TOURNAMENT_SIZE);
-            double[] offspring = crossover (parents[0], parents[1]);
-            // replace worst
-            int worstIndex = 0;
-            double worstFitness = Double.MAX_VALUE;
-            for (int i = 0; i < POPULATION_SIZE; i++) {
-                if (fitness[i] < worstFitness) {
-                    worstIndex = i;
-                    worstFitness = fitness[i];
-                }
-            }
-            population[worstIndex] = offspring;
-
-
-
-            // Output best fitness in the current generation
-            double bestFitness = Double.NEGATIVE_INFINITY;
-            double[] bestParams = null;
-            for (int i = 0; i < POPULATION_SIZE; i++) {
-                double[] engineParams = population[i];
-                double fitnessik = calculateFitness(engineParams);
-
-                if (fitnessik > bestFitness) {
-                    bestFitness = fitnessik;
-                    bestParams = engineParams;
-                }
-            }
-            System.out.println(bestFitness + ",");
+        // Output best fitness of each generation, read back from the trace for the plots
+        try (Stream<TraceRecord> history = TraceReader.stream(trace)) {
+            history.forEach(record -> System.out.println(record.getBest() + ","));
         }
 
         // Find best engine parameter set and display results
-        double bestFitness = Double.NEGATIVE_INFINITY;
-        double[] bestParams = null;
-        for (int i = 0; i < POPULATION_SIZE; i++) {
-            double[] engineParams = population[i];
-            double fitness = calculateFitness(engineParams);
-
-            if (fitness > bestFitness) {
-                bestFitness = fitness;
-                bestParams = engineParams;
-            }
-        }
+        double[] bestParams = ga.getBestGenes();
 
         System.out.println("Best engine parameters:");
         System.out.println("Mean effective pressure: " + bestParams[0]);
@@ -95,46 +62,37 @@ public class prva {
 
     }
 
+    // Initialize population: one gene column per engine parameter
+    static FlatDoubleEngine newEngine(int populationSize) {
+        double[] min = {MIN_VALVE_MEP, MIN_STROKE_LENGTH, MIN_BORE, MIN_REVS};
+        double[] max = {MAX_VALVE_MEP, MAX_STROKE_LENGTH, MAX_BORE, MAX_REVS};
+        return new FlatDoubleEngine(populationSize, min, max, kernel(), TOURNAMENT_SIZE, 1);
+    }
 
+    // SIMD power kernel when the Vector API module is present, scalar loop otherwise
+    static DoubleFitness kernel() {
+        DoubleFitness scalar = prva::calculateFitness;
+        return VectorSupport.select(prva::vectorKernel, scalar);
+    }
 
-    private static double[] crossover(double[] parent1, double[] parent2) {
-        double[] offspring = new double[4];
-        for (int i = 0; i < 4; i++) {
-            offspring[i] = random.nextBoolean() ? parent1[i] : parent2[i];
-        }
-
-        return offspring;
+    static DoubleFitness vectorKernel() {
+        return new PowerVectorKernel(prva::calculateFitness, cylindersnumber);
     }
 
-    private static double calculateFitness(double[] engineParams) {
+    static double calculateFitness(double[] engineParams) {
         return (cylindersnumber * engineParams[0] * engineParams[1] * (PI / 4) * (Math.pow(engineParams[2], 2))
                 * engineParams[3]) / (2 * 33000);
     }
 
-    private static double[] tournamentSelection(double[][] population, double[] fitness, int tournamentSize) {
-        int[] tournamentIndices = new int[tournamentSize];
-
-        // Randomly select individuals for the tournament
-        for (int i = 0; i < tournamentSize; i++) {
-            tournamentIndices[i] = random.nextInt(population.length);
-        }
-
-        // Find the fittest individual in the tournament
-        int fittestIndex = tournamentIndices[0];
-        double fittestFitness = fitness[fittestIndex];
-        
-        for (int i = 1; i < tournamentSize; i++) {
-            int currentIndex = tournamentIndices[i];
-            double currentFitness = fitness[currentIndex];
-
-            if (currentFitness > fittestFitness) {
-                fittestIndex = currentIndex;
-                fittestFitness = currentFitness;
-            }
+    // Same formula over the gene columns of a whole block of engines
+    static void calculateFitness(double[][] columns, int from, int to, double[] fitness) {
+        double[] mep = columns[0];
+        double[] stroke = columns[1];
+        double[] bore = columns[2];
+        double[] revs = columns[3];
+        for (int i = from; i < to; i++) {
+            fitness[i] = (cylindersnumber * mep[i] * stroke[i] * (PI / 4) * (bore[i] * bore[i]) * revs[i])
+                    / (2 * 33000);
         }
-
-        // Return the fittest individual
-        return population[fittestIndex];
     }
 }
-
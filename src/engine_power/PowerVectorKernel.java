@@ -0,0 +1,36 @@
+package engine_power;
+
+import ga_engine.DoubleFitness;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// prva's power formula over whole SIMD lanes of engines. The multiplications run in
+// the same order as the scalar formula, so both kernels give identical fitness.
+class PowerVectorKernel implements DoubleFitness {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final DoubleFitness scalar;
+    private final double cylinders;
+
+    PowerVectorKernel(DoubleFitness scalar, double cylinders) {
+        this.scalar = scalar;
+        this.cylinders = cylinders;
+    }
+
+    @Override
+    public void evaluate(double[][] columns, int from, int to, double[] fitness) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector mep = DoubleVector.fromArray(SPECIES, columns[0], i);
+            DoubleVector stroke = DoubleVector.fromArray(SPECIES, columns[1], i);
+            DoubleVector bore = DoubleVector.fromArray(SPECIES, columns[2], i);
+            DoubleVector revs = DoubleVector.fromArray(SPECIES, columns[3], i);
+            mep.mul(cylinders).mul(stroke).mul(Math.PI / 4).mul(bore.mul(bore)).mul(revs)
+                    .div(2 * 33000)
+                    .intoArray(fitness, i);
+        }
+        // Tail that does not fill a whole vector
+        scalar.evaluate(columns, i, to, fitness);
+    }
+}
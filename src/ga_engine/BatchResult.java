@@ -0,0 +1,89 @@
+package ga_engine;
+
+/**
+ * Scores of one configuration over all seeds of a BatchRunner run.
+ */
+public class BatchResult<C> {
+
+    private final C configuration;
+    private final long[] seeds;
+    private final double[] scores;
+    private final long[] nanos;
+
+    BatchResult(C configuration, long[] seeds, double[] scores, long[] nanos) {
+        this.configuration = configuration;
+        this.seeds = seeds;
+        this.scores = scores;
+        this.nanos = nanos;
+    }
+
+    // Get methods
+    public C getConfiguration() {
+        return configuration;
+    }
+
+    public long getSeed(int run) {
+        return seeds[run];
+    }
+
+    public double getScore(int run) {
+        return scores[run];
+    }
+
+    public int getRuns() {
+        return scores.length;
+    }
+
+    public double getMean() {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+        return sum / scores.length;
+    }
+
+    // Sample standard deviation, 0 for a single run
+    public double getStandardDeviation() {
+        if (scores.length < 2) {
+            return 0;
+        }
+        double mean = getMean();
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+        return Math.sqrt(squares / (scores.length - 1));
+    }
+
+    public double getBest() {
+        double best = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    public double getWorst() {
+        double worst = Double.POSITIVE_INFINITY;
+        for (double score : scores) {
+            worst = Math.min(worst, score);
+        }
+        return worst;
+    }
+
+    // Average wall time of one run
+    public double getMeanMillis() {
+        long sum = 0;
+        for (long time : nanos) {
+            sum += time;
+        }
+        return sum / 1e6 / nanos.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: mean %.6f, sd %.6f, best %.6f, worst %.6f over %d runs, %.1f ms per run",
+                configuration, getMean(), getStandardDeviation(), getBest(), getWorst(), getRuns(), getMeanMillis());
+    }
+
+}
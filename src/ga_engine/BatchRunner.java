@@ -0,0 +1,85 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs a job once per (configuration, seed) pair as tasks on a work-stealing
+ * ForkJoinPool, all in this JVM so every run profits from the already compiled engine.
+ * Each task gets a fresh SplitMixRandom seeded with its seed and builds its own engine,
+ * so a score depends on nothing but its configuration and seed, whatever thread runs
+ * it and in whichever order. Scores are aggregated per configuration.
+ */
+public class BatchRunner<C> {
+
+    // One isolated run: build an engine for the configuration, draw only from random,
+    // return the score (usually the best fitness)
+    @FunctionalInterface
+    public interface Job<C> {
+        double run(C configuration, RandomGenerator random) throws Exception;
+    }
+
+    private final Job<C> job;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public BatchRunner(Job<C> job) {
+        this.job = job;
+    }
+
+    // Number of runs at the same time, all processors by default
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    // Results in the order of configurations, scores in the order of seeds
+    public List<BatchResult<C>> run(List<C> configurations, long... seeds) {
+        double[][] scores = new double[configurations.size()][seeds.length];
+        long[][] nanos = new long[configurations.size()][seeds.length];
+
+        List<Callable<Void>> tasks = new ArrayList<>(configurations.size() * seeds.length);
+        for (int c = 0; c < configurations.size(); c++) {
+            for (int s = 0; s < seeds.length; s++) {
+                int configuration = c;
+                int seed = s;
+                tasks.add(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        scores[configuration][seed] = job.run(configurations.get(configuration),
+                                new SplitMixRandom(seeds[seed]));
+                    } catch (Exception e) {
+                        throw new IllegalStateException("run of " + configurations.get(configuration) + " with seed "
+                                + seeds[seed] + " failed", e);
+                    }
+                    nanos[configuration][seed] = System.nanoTime() - start;
+                    return null;
+                });
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException failure ? failure : new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<BatchResult<C>> results = new ArrayList<>(configurations.size());
+        for (int c = 0; c < configurations.size(); c++) {
+            results.add(new BatchResult<>(configurations.get(c), seeds.clone(), scores[c], nanos[c]));
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,104 @@
+package ga_engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkpoints of a GeneticEngine in a memory-mapped file: every individual is one
+ * fixed-width record (fitness, then the genome in the codec's form), next to the
+ * generation, evaluation count and RNG state. save() copies the population into the
+ * mapping and returns, the flush to disk runs in the background. restore() decodes
+ * straight out of the mapping, there is nothing to parse.
+ *
+ * The engine has to draw from a SplitMixRandom (the default) so the resumed run
+ * continues with the same random numbers. Only the engine state is saved: stateful
+ * termination criteria (stagnation, wall clock), a surrogate's archive and the fitness
+ * cache start afresh, so a resumed run can stop later than the uninterrupted one
+ * would have. A snapshot survives a crash of the process, not a power loss (see
+ * SnapshotFile).
+ */
+public class Checkpoint<G extends Genome> implements Closeable {
+
+    private static final int LAYOUT = 1;
+
+    private final int populationSize;
+    private final GenomeCodec<G> codec;
+    private final int recordBytes;
+    private final SnapshotFile file;
+    private long saved;
+    private long skipped;
+
+    public Checkpoint(Path file, int populationSize, GenomeCodec<G> codec) throws IOException {
+        this.populationSize = populationSize;
+        this.codec = codec;
+        this.recordBytes = Double.BYTES + codec.bytes();
+        this.file = new SnapshotFile(file, LAYOUT, populationSize, recordBytes, (long) populationSize * recordBytes);
+    }
+
+    // Checkpoints written so far, and skipped because both slots were still being flushed
+    public long getSaved() {
+        return saved;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // Snapshot the engine between two generations, false if the checkpoint was skipped
+    public boolean save(GeneticEngine<G> engine) throws IOException {
+        Population<G> population = engine.getPopulation();
+        if (population == null) {
+            throw new IllegalStateException("engine is not initialized");
+        }
+        if (population.size() != populationSize) {
+            throw new IllegalArgumentException("population of " + population.size() + ", checkpoint holds "
+                    + populationSize);
+        }
+        ByteBuffer body = file.begin(engine.getGeneration(), engine.getEvaluations(),
+                SnapshotFile.splitMix(engine.getRandom()));
+        if (body == null) {
+            skipped++;
+            return false;
+        }
+        for (int i = 0; i < populationSize; i++) {
+            Individual<G> individual = population.get(i);
+            int offset = i * recordBytes;
+            body.putDouble(offset, individual.getFitness());
+            codec.encode(individual.getGenome(), body, offset + Double.BYTES);
+        }
+        file.commit();
+        saved++;
+        return true;
+    }
+
+    // Continue the engine from the latest complete checkpoint instead of initialize(),
+    // false if the file holds none
+    public boolean restore(GeneticEngine<G> engine) {
+        int slot = file.latest();
+        if (slot < 0) {
+            return false;
+        }
+        ByteBuffer body = file.body(slot);
+        List<Individual<G>> individuals = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            int offset = i * recordBytes;
+            Individual<G> individual = new Individual<>(codec.decode(body, offset + Double.BYTES));
+            individual.setFitness(body.getDouble(offset));
+            individuals.add(individual);
+        }
+        engine.restore(new Population<>(individuals), file.generation(slot), file.evaluations(slot),
+                file.random(slot));
+        return true;
+    }
+
+    // Waits until the last checkpoint is on disk
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+}
@@ -0,0 +1,13 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+// Combines two parents into child1 (and child2 for crossovers with two children).
+// The children are recycled buffers of the same shape as the parents, their old
+// genes have to be overwritten. Returns the number of children written.
+@FunctionalInterface
+public interface Crossover<G extends Genome> {
+
+    int crossover(G parent1, G parent2, G child1, G child2, RandomGenerator random);
+
+}
@@ -0,0 +1,11 @@
+package ga_engine;
+
+// Batch fitness for a DoublePopulation: score rows from..to-1 reading gene g of row i
+// from columns[g][i] and writing fitness[i]. A plain indexed loop over the columns is
+// easy for the JIT to unroll and vectorize.
+@FunctionalInterface
+public interface DoubleFitness {
+
+    void evaluate(double[][] columns, int from, int to, double[] fitness);
+
+}
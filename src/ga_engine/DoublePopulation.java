@@ -0,0 +1,158 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Structure-of-arrays population for value-encoded genomes: one contiguous double[]
+ * per gene column plus parallel fitness and evaluated arrays, instead of an
+ * Individual, a genome object and a double[] per individual.
+ *
+ * Rows 0..size-1 are the population. Rows size..size+scratch-1 are scratch rows where
+ * children are bred and scored before they replace a population row, so a
+ * generation allocates nothing. Best and worst rows are tracked by the same indexed
+ * heaps as Population.
+ */
+public class DoublePopulation {
+
+    private final int size;
+    private final int length;
+    private final double[][] columns;
+    private final double[] fitness;
+    private final boolean[] evaluated;
+    private final IndexedHeap worst = new IndexedHeap(false);
+    private final IndexedHeap best = new IndexedHeap(true);
+
+    public DoublePopulation(int size, int length, int scratch) {
+        this.size = size;
+        this.length = length;
+        columns = new double[length][size + scratch];
+        fitness = new double[size + scratch];
+        evaluated = new boolean[size + scratch];
+    }
+
+    // Get and set methods
+    public int size() {
+        return size;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public double[] column(int gene) {
+        return columns[gene];
+    }
+
+    public double get(int row, int gene) {
+        return columns[gene][row];
+    }
+
+    public void set(int row, int gene, double value) {
+        columns[gene][row] = value;
+        evaluated[row] = false;
+    }
+
+    public double getFitness(int row) {
+        return fitness[row];
+    }
+
+    public boolean isEvaluated(int row) {
+        return evaluated[row];
+    }
+
+    // Copy the genes of a row into out
+    public double[] getGenes(int row, double[] out) {
+        for (int gene = 0; gene < length; gene++) {
+            out[gene] = columns[gene][row];
+        }
+        return out;
+    }
+
+    // Fill every population row with uniform values in [min[g], max[g])
+    public void randomize(double[] min, double[] max, RandomGenerator random) {
+        for (int row = 0; row < size; row++) {
+            for (int gene = 0; gene < length; gene++) {
+                columns[gene][row] = random.nextDouble() * (max[gene] - min[gene]) + min[gene];
+            }
+            evaluated[row] = false;
+        }
+    }
+
+    // Score every population row without a cached fitness, returns the number of rows scored
+    public int evaluate(DoubleFitness fitnessFunction) {
+        int evaluations = 0;
+        int row = 0;
+        while (row < size) {
+            if (evaluated[row]) {
+                row++;
+                continue;
+            }
+            // Hand the kernel whole runs of stale rows
+            int end = row;
+            while (end < size && !evaluated[end]) {
+                end++;
+            }
+            evaluate(fitnessFunction, row, end);
+            evaluations += end - row;
+            row = end;
+        }
+        if (evaluations > 0) {
+            worst.build(fitness, size);
+            best.build(fitness, size);
+        }
+        return evaluations;
+    }
+
+    // Score rows from..to-1, e.g. the scratch rows holding this generation's children
+    public void evaluate(DoubleFitness fitnessFunction, int from, int to) {
+        fitnessFunction.evaluate(columns, from, to, fitness);
+        for (int row = from; row < to; row++) {
+            evaluated[row] = true;
+        }
+    }
+
+    // Move the (scored) child in row into the place of the worst population row, O(log N)
+    public void replaceWorst(int row) {
+        int target = worst.peek();
+        for (int gene = 0; gene < length; gene++) {
+            columns[gene][target] = columns[gene][row];
+        }
+        fitness[target] = fitness[row];
+        evaluated[target] = evaluated[row];
+        worst.update(target);
+        best.update(target);
+    }
+
+    // Fitness from somewhere else than the fitness function, e.g. a surrogate prediction
+    void setFitness(int row, double value) {
+        fitness[row] = value;
+        evaluated[row] = true;
+    }
+
+    double[] fitness() {
+        return fitness;
+    }
+
+    // Every population row has been written together with its fitness (checkpoint),
+    // mark them scored and build the heaps
+    void restored() {
+        for (int row = 0; row < size; row++) {
+            evaluated[row] = true;
+        }
+        worst.build(fitness, size);
+        best.build(fitness, size);
+    }
+
+    public int getBestIndex() {
+        return best.peek();
+    }
+
+    public int getWorstIndex() {
+        return worst.peek();
+    }
+
+    public double getBestFitness() {
+        return fitness[best.peek()];
+    }
+
+}
@@ -0,0 +1,35 @@
+package ga_engine;
+
+import java.util.List;
+
+// Generational replacement: the best eliteRate share of the population survives
+// unchanged, the rest of the next generation is made of children
+public class ElitistReplacement<G extends Genome> implements Replacement<G> {
+
+    private final double eliteRate;
+
+    public ElitistReplacement(double eliteRate) {
+        this.eliteRate = eliteRate;
+    }
+
+    public int eliteSize(Population<G> population) {
+        return (int) (population.size() * eliteRate);
+    }
+
+    @Override
+    public int offspring(Population<G> population) {
+        return population.size() - eliteSize(population);
+    }
+
+    @Override
+    public void replace(Population<G> population, List<Individual<G>> offspring, List<Individual<G>> evicted) {
+        // Partial selection, the elites do not need to be in order
+        int eliteSize = eliteSize(population);
+        population.selectBest(eliteSize);
+        for (int i = eliteSize; i < population.size(); i++) {
+            evicted.add(population.get(i));
+        }
+        population.replaceFrom(eliteSize, offspring);
+    }
+
+}
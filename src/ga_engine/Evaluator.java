@@ -0,0 +1,13 @@
+package ga_engine;
+
+import java.util.List;
+
+// Strategy for scoring a batch of individuals. Every individual has to end up with
+// fitnessFunction.evaluate(genome), no matter how the work is scheduled; only
+// SurrogateEvaluator deliberately hands out predictions instead.
+public interface Evaluator<G extends Genome> {
+
+    // Returns the number of fitness function calls, the engines count only those
+    int evaluate(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction);
+
+}
@@ -0,0 +1,163 @@
+package ga_engine;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizing wrapper for expensive fitness functions over integer genomes. Results
+ * are keyed by the genome's int content, so a repeated genome (an unchanged elite,
+ * or a child that crossover rebuilt from a small allele space) is looked up instead
+ * of re-simulated. At most capacity entries are kept.
+ *
+ * Safe to share between evaluator threads. The entries are striped over up to 16
+ * segments by key hash, each an LRU map with its own lock and its share of the
+ * capacity, so eviction is least recently used per segment and concurrent lookups
+ * rarely meet on the same lock. The fitness function runs outside the locks, the
+ * counters are lock-free.
+ */
+public class FitnessCache<G extends Genome> implements FitnessFunction<G> {
+
+    private static final int MAX_SEGMENTS = 16;
+    // Smallest share of the capacity worth a segment of its own
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final FitnessFunction<G> fitnessFunction;
+    private final Function<G, int[]> genes;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public FitnessCache(FitnessFunction<G> fitnessFunction, Function<G, int[]> genes, int capacity) {
+        this.fitnessFunction = fitnessFunction;
+        this.genes = genes;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, capacity / MIN_SEGMENT_CAPACITY)));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            // Spread the remainder so the shares add up to capacity
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0), evictions);
+        }
+    }
+
+    @Override
+    public double evaluate(G genome) {
+        int[] content = genes.apply(genome);
+        int hash = Arrays.hashCode(content);
+        Segment segment = segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+        synchronized (segment) {
+            segment.probe.wrap(content, hash);
+            Double fitness = segment.get(segment.probe);
+            segment.probe.wrap(null, 0);
+            if (fitness != null) {
+                hits.increment();
+                return fitness;
+            }
+        }
+        misses.increment();
+        double fitness = fitnessFunction.evaluate(genome);
+        // Copy the genes, the genome buffer may be recycled later
+        Key key = new Key();
+        key.wrap(content.clone(), hash);
+        synchronized (segment) {
+            segment.put(key, fitness);
+        }
+        return fitness;
+    }
+
+    // Get methods for the counters
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + getHits() + ", misses: " + getMisses() + ", evictions: " + getEvictions()
+                + ", hit rate: " + Math.round(getHitRate() * 1000) / 10.0 + "%";
+    }
+
+    // Access-ordered map of one stripe, only used under its own monitor
+    private static final class Segment extends LinkedHashMap<Key, Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+        // Reused for lookups so a hit allocates nothing
+        private final Key probe = new Key();
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+    private static final class Key {
+
+        private int[] values;
+        private int hash;
+
+        void wrap(int[] values, int hash) {
+            this.values = values;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(values, ((Key) other).values);
+        }
+
+    }
+
+}
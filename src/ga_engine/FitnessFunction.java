@@ -0,0 +1,9 @@
+package ga_engine;
+
+// Maps a genome to its fitness score. Higher is better.
+@FunctionalInterface
+public interface FitnessFunction<G extends Genome> {
+
+    double evaluate(G genome);
+
+}
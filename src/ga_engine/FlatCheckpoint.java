@@ -0,0 +1,95 @@
+package ga_engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+
+/**
+ * Checkpoints of a FlatDoubleEngine in a memory-mapped file. The body has the same
+ * column layout as the DoublePopulation (every gene column, then the fitness column),
+ * so save() and restore() are one bulk copy per column between the population arrays
+ * and the mapping. See Checkpoint for the rest.
+ */
+public class FlatCheckpoint implements Closeable {
+
+    private static final int LAYOUT = 2;
+
+    private final int populationSize;
+    private final int length;
+    private final SnapshotFile file;
+    private long saved;
+    private long skipped;
+
+    public FlatCheckpoint(Path file, int populationSize, int length) throws IOException {
+        this.populationSize = populationSize;
+        this.length = length;
+        this.file = new SnapshotFile(file, LAYOUT, populationSize, length,
+                (long) (length + 1) * populationSize * Double.BYTES);
+    }
+
+    public long getSaved() {
+        return saved;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    // Snapshot the engine between two generations, false if the checkpoint was skipped
+    public boolean save(FlatDoubleEngine engine) throws IOException {
+        DoublePopulation population = engine.getPopulation();
+        if (population == null) {
+            throw new IllegalStateException("engine is not initialized");
+        }
+        checkShape(population);
+        ByteBuffer body = file.begin(engine.getGeneration(), engine.getEvaluations(),
+                SnapshotFile.splitMix(engine.getRandom()));
+        if (body == null) {
+            skipped++;
+            return false;
+        }
+        DoubleBuffer doubles = body.asDoubleBuffer();
+        for (int gene = 0; gene < length; gene++) {
+            doubles.put(gene * populationSize, population.column(gene), 0, populationSize);
+        }
+        doubles.put(length * populationSize, population.fitness(), 0, populationSize);
+        file.commit();
+        saved++;
+        return true;
+    }
+
+    // Continue the engine from the latest complete checkpoint instead of initialize(),
+    // false if the file holds none
+    public boolean restore(FlatDoubleEngine engine) {
+        int slot = file.latest();
+        if (slot < 0) {
+            return false;
+        }
+        DoublePopulation population = engine.newPopulation();
+        checkShape(population);
+        DoubleBuffer doubles = file.body(slot).asDoubleBuffer();
+        for (int gene = 0; gene < length; gene++) {
+            doubles.get(gene * populationSize, population.column(gene), 0, populationSize);
+        }
+        doubles.get(length * populationSize, population.fitness(), 0, populationSize);
+        population.restored();
+        engine.restore(population, file.generation(slot), file.evaluations(slot), file.random(slot));
+        return true;
+    }
+
+    // Waits until the last checkpoint is on disk
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    private void checkShape(DoublePopulation population) {
+        if (population.size() != populationSize || population.length() != length) {
+            throw new IllegalArgumentException("population of " + population.size() + " x " + population.length()
+                    + ", checkpoint holds " + populationSize + " x " + length);
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+package ga_engine;
+
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Steady-state micro GA over a DoublePopulation: tournament selection on fitness
+ * indices, uniform crossover straight into scratch rows, one batch fitness call for
+ * the children and replace-worst. Same loop as GeneticEngine with ReplaceWorst and a
+ * uniform crossover, but without any per-individual objects.
+ */
+public class FlatDoubleEngine {
+
+    private final int populationSize;
+    private final double[] min;
+    private final double[] max;
+    private final DoubleFitness fitnessFunction;
+    private final int tournamentSize;
+    private final int children;
+
+    private RandomGenerator random = RandomStreams.newStream();
+    private DoublePopulation population;
+    private int generation;
+    private long evaluations;
+    private MetricsRecorder metrics = MetricsRecorder.OFF;
+    private Surrogate surrogate;
+    private double[] genes;
+    private double[] predictions;
+    private int[] order;
+    private final GenerationMetrics progress = new GenerationMetrics();
+    private final IntToDoubleFunction fitness = row -> population.getFitness(row);
+
+    // children per generation: 1 keeps one child of each mating, 2 keeps both siblings
+    public FlatDoubleEngine(int populationSize, double[] min, double[] max, DoubleFitness fitnessFunction,
+            int tournamentSize, int children) {
+        this.populationSize = populationSize;
+        this.min = min;
+        this.max = max;
+        this.fitnessFunction = fitnessFunction;
+        this.tournamentSize = tournamentSize;
+        this.children = children;
+    }
+
+    // Get and set methods
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // Report every sampleInterval-th generation to the listener, a null listener turns metrics off
+    public void setListener(GenerationListener listener, int sampleInterval) {
+        if (listener != null && sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.metrics = listener == null ? MetricsRecorder.OFF : new MetricsRecorder(listener, sampleInterval);
+    }
+
+    // Pre-screen the children with a surrogate model, only the promising ones are scored
+    // by the fitness function (see Surrogate). Null scores every child.
+    public void setSurrogate(Surrogate surrogate) {
+        this.surrogate = surrogate;
+        genes = new double[min.length];
+        predictions = new double[children];
+        order = new int[children];
+    }
+
+    RandomGenerator getRandom() {
+        return random;
+    }
+
+    public DoublePopulation getPopulation() {
+        return population;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    // Number of fitness function calls so far, children the surrogate only predicted do not count
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getBestFitness() {
+        return population.getBestFitness();
+    }
+
+    public double[] getBestGenes() {
+        return population.getGenes(population.getBestIndex(), new double[min.length]);
+    }
+
+    // Initialize population and evaluate initial fitness
+    public void initialize() {
+        population = new DoublePopulation(populationSize, min.length, children);
+        population.randomize(min, max, random);
+        generation = 0;
+        evaluations = population.evaluate(fitnessFunction);
+        if (surrogate != null) {
+            for (int row = 0; row < populationSize; row++) {
+                surrogate.learn(population.getGenes(row, genes), population.getFitness(row));
+            }
+        }
+    }
+
+    // An empty population of the engine's shape, for restore()
+    DoublePopulation newPopulation() {
+        return new DoublePopulation(populationSize, min.length, children);
+    }
+
+    // Continue from a checkpoint instead of initialize()
+    void restore(DoublePopulation population, int generation, long evaluations, RandomGenerator random) {
+        this.population = population;
+        this.generation = generation;
+        this.evaluations = evaluations;
+        this.random = random;
+    }
+
+    // One generation: select parents, breed into the scratch rows, score them and replace the worst
+    public void step() {
+        if (population == null) {
+            initialize();
+        }
+
+        metrics.begin(generation + 1);
+
+        int first = population.size();
+        for (int child = 0; child < children; child += 2) {
+            int parent1 = select();
+            int parent2 = select();
+            metrics.lap(GenerationMetrics.Stage.SELECT);
+            crossover(parent1, parent2, first + child, child + 1 < children ? first + child + 1 : -1);
+            metrics.lap(GenerationMetrics.Stage.BREED);
+        }
+
+        if (surrogate == null || !surrogate.isTrained()) {
+            population.evaluate(fitnessFunction, first, first + children);
+            if (surrogate != null) {
+                for (int row = first; row < first + children; row++) {
+                    surrogate.learn(population.getGenes(row, genes), population.getFitness(row));
+                }
+            }
+            evaluations += children;
+        } else {
+            evaluations += screen(first);
+        }
+        metrics.lap(GenerationMetrics.Stage.EVALUATE);
+
+        for (int child = 0; child < children; child++) {
+            population.replaceWorst(first + child);
+        }
+        metrics.lap(GenerationMetrics.Stage.REPLACE);
+
+        generation++;
+        if (metrics.isSampling()) {
+            metrics.finish(generation, evaluations, population.getBestFitness(),
+                    population.getFitness(population.getWorstIndex()), population.size(), fitness);
+        }
+    }
+
+    // Run a fixed number of generations and return the best fitness
+    public double run(int generations) {
+        while (generation < generations) {
+            step();
+        }
+        return getBestFitness();
+    }
+
+    // Ask the criterion whether to stop after the current generation. Best and worst come
+    // from the heaps, only criteria that read mean or diversity cost a pass over the population.
+    public boolean isDone(Termination termination) {
+        if (population == null) {
+            initialize();
+        }
+        progress.setGeneration(generation, evaluations);
+        progress.setFitness(population.getBestFitness(), population.getFitness(population.getWorstIndex()),
+                population.size(), fitness);
+        return termination.isDone(progress);
+    }
+
+    // Run until the criterion says stop and return the best fitness
+    public double run(Termination termination) {
+        return run(termination, 1);
+    }
+
+    // Same, but only ask every checkInterval generations, for criteria that read mean
+    // or diversity on populations so big that the pass costs more than a generation
+    public double run(Termination termination, int checkInterval) {
+        while (generation % checkInterval != 0 || !isDone(termination)) {
+            step();
+        }
+        return getBestFitness();
+    }
+
+    // Same policy as SurrogateEvaluator on the scratch rows, returns the number of real evaluations
+    private int screen(int first) {
+        for (int child = 0; child < children; child++) {
+            predictions[child] = surrogate.predict(population.getGenes(first + child, genes));
+        }
+        int count = surrogate.screen(predictions, children, order);
+        double floor = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int row = first + order[i];
+            population.evaluate(fitnessFunction, row, row + 1);
+            double fitness = population.getFitness(row);
+            surrogate.compare(predictions[order[i]], fitness);
+            surrogate.learn(population.getGenes(row, genes), fitness);
+            floor = Math.min(floor, fitness);
+        }
+        for (int i = count; i < children; i++) {
+            population.setFitness(first + order[i], Math.min(predictions[order[i]], floor));
+        }
+        return count;
+    }
+
+    // Tournament selection on row indices
+    private int select() {
+        return TournamentSelection.select(population.fitness(), populationSize, tournamentSize, random);
+    }
+
+    // Uniform crossover with a random mask, the sibling (if any) takes the other parent's genes
+    private void crossover(int parent1, int parent2, int child, int sibling) {
+        for (int gene = 0; gene < min.length; gene++) {
+            double[] column = population.column(gene);
+            boolean mask = random.nextBoolean();
+            column[child] = mask ? column[parent1] : column[parent2];
+            if (sibling >= 0) {
+                column[sibling] = mask ? column[parent2] : column[parent1];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package ga_engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// One sampled generation in a flight recording, see JfrGenerationListener
+@Name("ga_engine.Generation")
+@Label("Generation")
+@Category("Genetic Algorithm")
+@Description("Fitness, throughput and cost of one sampled generation")
+class GenerationEvent extends jdk.jfr.Event {
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Best Fitness")
+    double best;
+
+    @Label("Mean Fitness")
+    double mean;
+
+    @Label("Worst Fitness")
+    double worst;
+
+    @Label("Diversity")
+    @Description("Standard deviation of the population fitness")
+    double diversity;
+
+    @Label("Evaluations per Second")
+    double evaluationsPerSecond;
+
+    @Label("Generation Time")
+    @Timespan
+    long time;
+
+    @Label("Select Time")
+    @Timespan
+    long select;
+
+    @Label("Breed Time")
+    @Timespan
+    long breed;
+
+    @Label("Evaluate Time")
+    @Timespan
+    long evaluate;
+
+    @Label("Replace Time")
+    @Timespan
+    long replace;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+
+}
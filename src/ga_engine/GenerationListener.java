@@ -0,0 +1,20 @@
+package ga_engine;
+
+/**
+ * Receives the metrics of sampled generations, see GeneticEngine.setListener. The
+ * metrics object is reused by the engine, copy what has to outlive the call.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    void onGeneration(GenerationMetrics metrics);
+
+    // Both listeners, this one first
+    default GenerationListener andThen(GenerationListener other) {
+        return metrics -> {
+            onGeneration(metrics);
+            other.onGeneration(metrics);
+        };
+    }
+
+}
@@ -0,0 +1,136 @@
+package ga_engine;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * What happened in one sampled generation. Times are in nanoseconds and cover the
+ * engine thread only, as does the allocation (-1 where the JVM cannot measure it).
+ * Diversity is the standard deviation of the population fitness.
+ */
+public class GenerationMetrics {
+
+    // The parts of a generation that are timed separately
+    public enum Stage {
+        SELECT, BREED, EVALUATE, REPLACE
+    }
+
+    private int generation;
+    private long evaluations;
+    private double best;
+    private double mean;
+    private double worst;
+    private double diversity;
+    private double evaluationsPerSecond;
+    private long nanos;
+    private final long[] stageNanos = new long[Stage.values().length];
+    private long allocatedBytes;
+    // Population behind mean and diversity while they have not been computed yet
+    private int size;
+    private IntToDoubleFunction fitness;
+
+    // Get and set methods
+    public int getGeneration() {
+        return generation;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getBest() {
+        return best;
+    }
+
+    public double getMean() {
+        describe();
+        return mean;
+    }
+
+    public double getWorst() {
+        return worst;
+    }
+
+    public double getDiversity() {
+        describe();
+        return diversity;
+    }
+
+    // Fitness evaluations per second since the previous sampled generation
+    public double getEvaluationsPerSecond() {
+        return evaluationsPerSecond;
+    }
+
+    // Wall time of the whole generation
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    void setGeneration(int generation, long evaluations) {
+        this.generation = generation;
+        this.evaluations = evaluations;
+    }
+
+    // Best and worst are known (heaps), mean and diversity cost a pass over the population
+    // and are only computed if someone reads them, before the population changes again
+    void setFitness(double best, double worst, int size, IntToDoubleFunction fitness) {
+        this.best = best;
+        this.worst = worst;
+        this.size = size;
+        this.fitness = fitness;
+    }
+
+    // Mean and spread in one pass (Welford)
+    private void describe() {
+        if (fitness == null) {
+            return;
+        }
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < size; i++) {
+            double f = fitness.applyAsDouble(i);
+            double delta = f - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (f - mean);
+        }
+        this.mean = mean;
+        this.diversity = size > 0 ? Math.sqrt(m2 / size) : 0;
+        fitness = null;
+    }
+
+    void setEvaluationsPerSecond(double evaluationsPerSecond) {
+        this.evaluationsPerSecond = evaluationsPerSecond;
+    }
+
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    void clearStages() {
+        Arrays.fill(stageNanos, 0);
+    }
+
+    void addNanos(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "generation " + generation + ": best " + best + ", mean " + getMean() + ", worst " + worst
+                + ", diversity " + getDiversity() + ", " + Math.round(evaluationsPerSecond) + " evaluations/s, "
+                + nanos / 1000 + " us, " + allocatedBytes + " bytes";
+    }
+
+}
@@ -0,0 +1,382 @@
+package ga_engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shared (micro) genetic algorithm loop. A problem plugs in how genomes are created,
+ * scored and bred; the engine owns population setup, selection, breeding, replacement
+ * and evaluation. One call to step() is one generation.
+ */
+public class GeneticEngine<G extends Genome> {
+
+    private final int populationSize;
+    private final GenomeFactory<G> factory;
+    private final FitnessFunction<G> fitnessFunction;
+    private final Selection<G> selection;
+    private final Crossover<G> crossover;
+    private final Replacement<G> replacement;
+
+    private Mutation<G> mutation;
+    private double mutationRate;
+    private RandomGenerator random = RandomStreams.newStream();
+    private boolean steadyState = true;
+    private boolean pooling;
+    private Evaluator<G> evaluator = new SequentialEvaluator<>();
+    private MetricsRecorder metrics = MetricsRecorder.OFF;
+
+    private Population<G> population;
+    private int generation;
+    private long evaluations;
+    private final GenerationMetrics progress = new GenerationMetrics();
+    private final IntToDoubleFunction fitness = index -> population.get(index).getFitness();
+
+    // Scratch lists and buffer pools reused for every generation
+    private final List<Individual<G>> offspring = new ArrayList<>();
+    private final List<Individual<G>> evicted = new ArrayList<>();
+    private final GenomePool<G> genomes = new GenomePool<>();
+    private final ArrayDeque<Individual<G>> individuals = new ArrayDeque<>();
+
+    // Slices of the offspring bred in parallel, empty when breeding runs on the caller
+    private final List<BreedingSlice> slices = new ArrayList<>();
+    // Children one crossover writes, 0 until a generation has been bred
+    private int crossoverChildren;
+
+    public GeneticEngine(int populationSize, GenomeFactory<G> factory, FitnessFunction<G> fitnessFunction,
+            Selection<G> selection, Crossover<G> crossover, Replacement<G> replacement) {
+        this.populationSize = populationSize;
+        this.factory = factory;
+        this.fitnessFunction = fitnessFunction;
+        this.selection = selection;
+        this.crossover = crossover;
+        this.replacement = replacement;
+    }
+
+    // Get and set methods
+    public void setMutation(Mutation<G> mutation, double mutationRate) {
+        this.mutation = mutation;
+        this.mutationRate = mutationRate;
+    }
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // In steady-state mode (default) only new offspring are scored and every other
+    // individual keeps its cached fitness. Turn it off for fitness functions whose
+    // value can change between generations, the whole population is then re-scored.
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+    }
+
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    // Allocation-free mode: genomes and individuals that leave the population are
+    // recycled as buffers for the next children instead of being left to the GC.
+    // An Individual returned by getBest() is then only valid until the next step().
+    public void setPooling(boolean pooling) {
+        this.pooling = pooling;
+    }
+
+    // How fitness batches are scheduled, sequential by default
+    public void setEvaluator(Evaluator<G> evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    // Breed the children in this many slices on the fork/join pool, 1 breeds on the
+    // calling thread. Every slice selects, crosses, mutates and scores its share with
+    // its own random stream and buffers, so the evaluator is only used for the initial
+    // population. The stream of each slice is split off the engine's generator every
+    // generation, results depend on the slice count but not on the thread count.
+    // Selection, crossover, mutation and fitness must be safe to call from several threads.
+    public void setBreedingSlices(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        slices.clear();
+        for (int i = 0; count > 1 && i < count; i++) {
+            slices.add(new BreedingSlice());
+        }
+    }
+
+    // Report every sampleInterval-th generation to the listener, a null listener turns
+    // metrics off. Generations in between are not measured at all.
+    public void setListener(GenerationListener listener, int sampleInterval) {
+        if (listener != null && sampleInterval < 1) {
+            throw new IllegalArgumentException("sampleInterval must be positive: " + sampleInterval);
+        }
+        this.metrics = listener == null ? MetricsRecorder.OFF : new MetricsRecorder(listener, sampleInterval);
+    }
+
+    RandomGenerator getRandom() {
+        return random;
+    }
+
+    public Population<G> getPopulation() {
+        return population;
+    }
+
+    public FitnessFunction<G> getFitnessFunction() {
+        return fitnessFunction;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    // Number of fitness function calls so far, children a surrogate only predicted do not count
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public Individual<G> getBest() {
+        return population.getBest();
+    }
+
+    // Initialize population and evaluate initial fitness
+    public void initialize() {
+        population = new Population<>(populationSize, factory, random);
+        generation = 0;
+        evaluations = population.evaluate(fitnessFunction, evaluator);
+    }
+
+    // The fitness function has changed (e.g. new problem data): drop every cached fitness
+    // and score the current individuals again, evolution then goes on from them
+    public void rescore() {
+        if (population == null) {
+            initialize();
+            return;
+        }
+        population.invalidate();
+        evaluations += population.evaluate(fitnessFunction, evaluator);
+    }
+
+    // Continue from a checkpoint instead of initialize()
+    void restore(Population<G> population, int generation, long evaluations, RandomGenerator random) {
+        if (population.size() != populationSize) {
+            throw new IllegalArgumentException("checkpoint holds " + population.size() + " individuals, engine needs "
+                    + populationSize);
+        }
+        this.population = population;
+        this.generation = generation;
+        this.evaluations = evaluations;
+        this.random = random;
+    }
+
+    // One generation: select parents, breed, score the children and replace
+    public void step() {
+        if (population == null) {
+            initialize();
+        }
+        metrics.begin(generation + 1);
+
+        int needed = replacement.offspring(population);
+        selection.prepare(population, random);
+        offspring.clear();
+        if (slices.isEmpty()) {
+            int written = breed(offspring, needed, 0, random, genomes, individuals, metrics);
+            if (written > 0) {
+                crossoverChildren = written;
+            }
+
+            // Score the children as one batch
+            evaluations += evaluator.evaluate(offspring, fitnessFunction);
+            metrics.lap(GenerationMetrics.Stage.EVALUATE);
+        } else {
+            // Bred and scored together, charged to BREED
+            breedInSlices(needed);
+            evaluations += offspring.size();
+            metrics.lap(GenerationMetrics.Stage.BREED);
+        }
+
+        // Let the children into the population
+        evicted.clear();
+        replacement.replace(population, offspring, evicted);
+        if (pooling) {
+            for (int i = 0; i < evicted.size(); i++) {
+                Individual<G> individual = evicted.get(i);
+                if (slices.isEmpty()) {
+                    genomes.release(individual.getGenome());
+                    individuals.push(individual);
+                } else {
+                    slices.get(i % slices.size()).release(individual);
+                }
+            }
+        }
+        evicted.clear();
+        metrics.lap(GenerationMetrics.Stage.REPLACE);
+
+        // Offspring are already scored, everyone else keeps the cached fitness
+        if (!steadyState) {
+            population.invalidate();
+            evaluations += population.evaluate(fitnessFunction, evaluator);
+            metrics.lap(GenerationMetrics.Stage.EVALUATE);
+        }
+
+        generation++;
+        if (metrics.isSampling()) {
+            metrics.finish(generation, evaluations, population.getBest().getFitness(),
+                    population.getWorst().getFitness(), population.size(), fitness);
+        }
+    }
+
+    // Fill children up to count, drawing from random and recycling from the given pools.
+    // Parent draws are numbered from draw on, two per crossover. Returns the most children
+    // a crossover wrote, 0 if none was needed.
+    private int breed(List<Individual<G>> children, int count, int draw, RandomGenerator random,
+            GenomePool<G> genomes, ArrayDeque<Individual<G>> individuals, MetricsRecorder metrics) {
+        int most = 0;
+        while (children.size() < count) {
+            // Select parents
+            G parent1 = population.get(selection.selectIndex(population, random, draw++)).getGenome();
+            G parent2 = population.get(selection.selectIndex(population, random, draw++)).getGenome();
+            metrics.lap(GenerationMetrics.Stage.SELECT);
+
+            // Crossover into two (recycled) buffers
+            G child1 = genomes.take(parent1);
+            G child2 = genomes.take(parent1);
+            int written = crossover.crossover(parent1, parent2, child1, child2, random);
+            most = Math.max(most, written);
+
+            addChild(children, count, child1, written >= 1, random, genomes, individuals);
+            addChild(children, count, child2, written >= 2, random, genomes, individuals);
+            metrics.lap(GenerationMetrics.Stage.BREED);
+        }
+        return most;
+    }
+
+    private void addChild(List<Individual<G>> children, int count, G child, boolean written, RandomGenerator random,
+            GenomePool<G> genomes, ArrayDeque<Individual<G>> individuals) {
+        if (!written || children.size() == count) {
+            if (pooling) {
+                genomes.release(child);
+            }
+            return;
+        }
+        // Mutation (omitted in the micro GA, i.e. rate 0.0)
+        if (mutation != null && random.nextDouble() < mutationRate) {
+            mutation.mutate(child, random);
+        }
+        Individual<G> individual = individuals.poll();
+        if (individual == null) {
+            individual = new Individual<>(child);
+        } else {
+            individual.reset(child);
+        }
+        children.add(individual);
+    }
+
+    // Streams are drawn in slice order before anything runs, and the children are
+    // appended in slice order afterwards, so scheduling cannot change the outcome.
+    // Every slice numbers its parent draws on from where the slices before it stop, as
+    // the caller would, so a prepared pool is read once from its start (for crossovers
+    // that always write the same number of children).
+    private void breedInSlices(int needed) {
+        int count = slices.size();
+        for (int i = 0; i < count; i++) {
+            BreedingSlice slice = slices.get(i);
+            slice.reinitialize();
+            slice.random.reseed(random.nextLong(), random.nextLong());
+            slice.count = (int) ((long) needed * (i + 1) / count - (long) needed * i / count);
+        }
+        // Until a crossover has been seen, slices run one at a time on the caller to find
+        // out how many draws a slice takes
+        int draw = 0;
+        int started = 0;
+        while (crossoverChildren == 0 && started < count) {
+            BreedingSlice slice = slices.get(started++);
+            slice.draw = draw;
+            slice.invoke();
+            crossoverChildren = slice.written;
+            draw += draws(slice.count);
+        }
+        for (int i = started; i < count; i++) {
+            BreedingSlice slice = slices.get(i);
+            slice.draw = draw;
+            draw += draws(slice.count);
+        }
+        ForkJoinTask.invokeAll(slices.subList(started, count));
+        for (int i = 0; i < count; i++) {
+            offspring.addAll(slices.get(i).children);
+        }
+    }
+
+    // Parent draws of a slice of count children, two per crossover
+    private int draws(int count) {
+        return crossoverChildren == 0 ? 0 : 2 * ((count + crossoverChildren - 1) / crossoverChildren);
+    }
+
+    // One share of the offspring with its own stream and buffers. Only its worker
+    // touches it during breeding, the engine hands it evicted buffers in between.
+    private final class BreedingSlice extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SplitMixRandom random = new SplitMixRandom(0);
+        private final GenomePool<G> genomes = new GenomePool<>();
+        private final ArrayDeque<Individual<G>> individuals = new ArrayDeque<>();
+        private final List<Individual<G>> children = new ArrayList<>();
+        private int draw;
+        private int count;
+        private int written;
+
+        @Override
+        protected void compute() {
+            children.clear();
+            written = breed(children, count, draw, random, genomes, individuals, MetricsRecorder.OFF);
+            // Score while the children are still hot in this core's cache
+            for (int i = 0; i < children.size(); i++) {
+                Individual<G> child = children.get(i);
+                child.setFitness(fitnessFunction.evaluate(child.getGenome()));
+            }
+        }
+
+        void release(Individual<G> individual) {
+            genomes.release(individual.getGenome());
+            individuals.push(individual);
+        }
+
+    }
+
+    // Run a fixed number of generations and return the best individual
+    public Individual<G> run(int generations) {
+        while (generation < generations) {
+            step();
+        }
+        return getBest();
+    }
+
+    // Ask the criterion whether to stop after the current generation. Best and worst come
+    // from the heaps, only criteria that read mean or diversity cost a pass over the population.
+    public boolean isDone(Termination termination) {
+        if (population == null) {
+            initialize();
+        }
+        progress.setGeneration(generation, evaluations);
+        progress.setFitness(population.getBest().getFitness(), population.getWorst().getFitness(), population.size(),
+                fitness);
+        return termination.isDone(progress);
+    }
+
+    // Run until the criterion says stop and return the best individual
+    public Individual<G> run(Termination termination) {
+        return run(termination, 1);
+    }
+
+    // Same, but only ask every checkInterval generations, for criteria that read mean
+    // or diversity on populations so big that the pass costs more than a generation
+    public Individual<G> run(Termination termination, int checkInterval) {
+        while (generation % checkInterval != 0 || !isDone(termination)) {
+            step();
+        }
+        return getBest();
+    }
+
+}
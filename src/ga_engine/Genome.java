@@ -0,0 +1,13 @@
+package ga_engine;
+
+// Encoded candidate solution. The engine only needs to know how many genes it carries
+// and how to duplicate it, everything else (encoding, crossover, mutation) is defined
+// by the problem.
+public interface Genome {
+
+    int length();
+
+    // Deep copy, e.g. for a migrant that moves to another island
+    Genome copy();
+
+}
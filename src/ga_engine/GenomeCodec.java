@@ -0,0 +1,17 @@
+package ga_engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary form of a genome for checkpoints. Every genome takes exactly
+ * bytes() bytes; encode and decode use absolute offsets into a little-endian buffer.
+ */
+public interface GenomeCodec<G extends Genome> {
+
+    int bytes();
+
+    void encode(G genome, ByteBuffer buffer, int offset);
+
+    G decode(ByteBuffer buffer, int offset);
+
+}
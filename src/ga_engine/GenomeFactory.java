@@ -0,0 +1,11 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+// Creates a random genome for the initial population
+@FunctionalInterface
+public interface GenomeFactory<G extends Genome> {
+
+    G create(RandomGenerator random);
+
+}
@@ -0,0 +1,9 @@
+package ga_engine;
+
+// Writes the numeric coordinates of a genome into out, one per Surrogate dimension
+@FunctionalInterface
+public interface GenomeFeatures<G extends Genome> {
+
+    void extract(G genome, double[] out);
+
+}
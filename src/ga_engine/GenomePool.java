@@ -0,0 +1,26 @@
+package ga_engine;
+
+import java.util.ArrayDeque;
+
+// Free list of genome buffers. take() hands out a released buffer, or a copy of the
+// template while the pool is still warming up, so a steady-state loop that releases
+// what it evicts stops allocating once the pool holds a few buffers.
+public class GenomePool<G extends Genome> {
+
+    private final ArrayDeque<G> free = new ArrayDeque<>();
+
+    @SuppressWarnings("unchecked")
+    public G take(G template) {
+        G genome = free.poll();
+        return genome != null ? genome : (G) template.copy();
+    }
+
+    public void release(G genome) {
+        free.push(genome);
+    }
+
+    public int available() {
+        return free.size();
+    }
+
+}
@@ -0,0 +1,100 @@
+package ga_engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative long values (nanoseconds, bytes). Buckets are
+ * log-linear, eight per power of two, so percentiles are within 12.5% of the recorded
+ * values and recording never allocates.
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_BUCKETS];
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    // Negative values (unmeasured) are ignored
+    public synchronized void record(long value) {
+        if (value < 0) {
+            return;
+        }
+        counts[bucket(value)]++;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    // Upper end of the bucket holding the given percentile (0-100), capped at the maximum
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upper(i));
+            }
+        }
+        return max;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+        sum = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "count " + count + ", min " + getMin() + ", mean " + Math.round(getMean()) + ", p50 "
+                + getPercentile(50) + ", p99 " + getPercentile(99) + ", max " + max;
+    }
+
+    // Values below SUB_BUCKETS get a bucket each, above that the top SUB_BITS bits
+    // after the leading one pick one of eight buckets of their power of two
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upper(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+
+}
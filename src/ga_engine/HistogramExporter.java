@@ -0,0 +1,70 @@
+package ga_engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Keeps the sampled generations in memory as histograms of generation time, time per
+ * stage, allocation and evaluation rate. Several engines (islands) may share one.
+ */
+public class HistogramExporter implements GenerationListener {
+
+    private final Histogram time = new Histogram();
+    private final Map<GenerationMetrics.Stage, Histogram> stages = new EnumMap<>(GenerationMetrics.Stage.class);
+    private final Histogram allocation = new Histogram();
+    private final Histogram evaluationRate = new Histogram();
+
+    public HistogramExporter() {
+        for (GenerationMetrics.Stage stage : GenerationMetrics.Stage.values()) {
+            stages.put(stage, new Histogram());
+        }
+    }
+
+    @Override
+    public void onGeneration(GenerationMetrics metrics) {
+        time.record(metrics.getNanos());
+        for (Map.Entry<GenerationMetrics.Stage, Histogram> stage : stages.entrySet()) {
+            stage.getValue().record(metrics.getNanos(stage.getKey()));
+        }
+        allocation.record(metrics.getAllocatedBytes());
+        evaluationRate.record(Math.round(metrics.getEvaluationsPerSecond()));
+    }
+
+    // Nanoseconds per generation
+    public Histogram getTime() {
+        return time;
+    }
+
+    public Histogram getTime(GenerationMetrics.Stage stage) {
+        return stages.get(stage);
+    }
+
+    // Bytes allocated per generation on the engine thread
+    public Histogram getAllocation() {
+        return allocation;
+    }
+
+    public Histogram getEvaluationRate() {
+        return evaluationRate;
+    }
+
+    public void clear() {
+        time.clear();
+        stages.values().forEach(Histogram::clear);
+        allocation.clear();
+        evaluationRate.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append("generation ns: ").append(time).append('\n');
+        for (Map.Entry<GenerationMetrics.Stage, Histogram> stage : stages.entrySet()) {
+            out.append(stage.getKey().name().toLowerCase()).append(" ns: ").append(stage.getValue()).append('\n');
+        }
+        out.append("allocated bytes: ").append(allocation).append('\n');
+        out.append("evaluations/s: ").append(evaluationRate);
+        return out.toString();
+    }
+
+}
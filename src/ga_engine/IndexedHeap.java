@@ -0,0 +1,92 @@
+package ga_engine;
+
+// Binary heap over population slots, ordered by the fitness stored in keys.
+// position[] maps a slot back to its place in the heap, so a slot whose
+// fitness changed is re-sifted in O(log N) instead of rebuilding the heap.
+// Ties go to the lower slot, the same individual the linear scans used to pick.
+final class IndexedHeap {
+
+    private final boolean max;
+    private double[] keys;
+    private int[] heap;
+    private int[] position;
+    private int size;
+
+    IndexedHeap(boolean max) {
+        this.max = max;
+    }
+
+    // Heapify slots 0..size-1 in O(N)
+    void build(double[] keys, int size) {
+        this.keys = keys;
+        this.size = size;
+        if (heap == null || heap.length != size) {
+            heap = new int[size];
+            position = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            position[i] = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    // Slot at the top: the worst individual for a min-heap, the best for a max-heap
+    int peek() {
+        return heap[0];
+    }
+
+    // Restore the heap order after keys[slot] has changed
+    void update(int slot) {
+        int i = position[slot];
+        siftUp(i);
+        siftDown(position[slot]);
+    }
+
+    private boolean before(int slotA, int slotB) {
+        int cmp = Double.compare(keys[slotA], keys[slotB]);
+        if (cmp == 0) {
+            return slotA < slotB;
+        }
+        return max ? cmp > 0 : cmp < 0;
+    }
+
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(slot, heap[parent])) {
+                break;
+            }
+            move(heap[parent], i);
+            i = parent;
+        }
+        move(slot, i);
+    }
+
+    private void siftDown(int i) {
+        int slot = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && before(heap[right], heap[child])) {
+                child = right;
+            }
+            if (!before(heap[child], slot)) {
+                break;
+            }
+            move(heap[child], i);
+            i = child;
+        }
+        move(slot, i);
+    }
+
+    private void move(int slot, int i) {
+        heap[i] = slot;
+        position[slot] = i;
+    }
+
+}
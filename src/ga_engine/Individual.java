@@ -0,0 +1,42 @@
+package ga_engine;
+
+// A genome together with its cached fitness score
+public class Individual<G extends Genome> {
+
+    private G genome;
+    private double fitness;
+    private boolean evaluated;
+
+    public Individual(G genome) {
+        this.genome = genome;
+    }
+
+    public G getGenome() {
+        return genome;
+    }
+
+    // Reuse this individual for another genome, the fitness becomes stale
+    void reset(G genome) {
+        this.genome = genome;
+        this.evaluated = false;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public void setFitness(double fitness) {
+        this.fitness = fitness;
+        this.evaluated = true;
+    }
+
+    // False until a fitness has been assigned, or after the cached one was invalidated
+    public boolean isEvaluated() {
+        return evaluated;
+    }
+
+    public void invalidate() {
+        evaluated = false;
+    }
+
+}
@@ -0,0 +1,172 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.function.IntFunction;
+
+/**
+ * Island model: K independent engines evolve on their own threads and every
+ * migrationInterval generations each island sends a copy of its best individual
+ * to its neighbours, where it replaces the worst individual.
+ *
+ * Migrants travel through lock-free queues. The islands only meet at a phaser when
+ * they migrate, and every island takes in exactly the migrants of that round,
+ * ordered by source island. With seeded islands a run is therefore reproducible
+ * regardless of how the threads are scheduled.
+ */
+public class IslandModel<G extends Genome> {
+
+    public enum Topology {
+        // Island i sends to island i+1
+        RING,
+        // Every island sends to every other island
+        FULLY_CONNECTED
+    }
+
+    private final List<GeneticEngine<G>> islands = new ArrayList<>();
+    private final List<ConcurrentLinkedQueue<Migrant<G>>> inboxes = new ArrayList<>();
+    private final Topology topology;
+    private final int migrationInterval;
+
+    // islandFactory builds the engine for island i, all islands should share the problem definition
+    public IslandModel(int islandCount, IntFunction<GeneticEngine<G>> islandFactory, Topology topology,
+            int migrationInterval) {
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(islandFactory.apply(i));
+            inboxes.add(new ConcurrentLinkedQueue<>());
+        }
+        this.topology = topology;
+        this.migrationInterval = migrationInterval;
+    }
+
+    // Give island i the i-th stream split off the master seed
+    public void setSeed(long seed) {
+        RandomStreams streams = new RandomStreams(seed);
+        for (int i = 0; i < islands.size(); i++) {
+            islands.get(i).setRandom(streams.split());
+        }
+    }
+
+    public List<GeneticEngine<G>> getIslands() {
+        return islands;
+    }
+
+    // Evolve all islands for the given number of generations and return the overall best
+    public Individual<G> run(int generations) {
+        Phaser migration = new Phaser(islands.size());
+        ExecutorService executor = Executors.newFixedThreadPool(islands.size());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < islands.size(); i++) {
+                int island = i;
+                running.add(executor.submit(() -> evolve(island, generations, migration)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Island run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Island failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return getBest();
+    }
+
+    public Individual<G> getBest() {
+        Individual<G> best = null;
+        for (GeneticEngine<G> island : islands) {
+            Individual<G> candidate = island.getBest();
+            if (best == null || candidate.getFitness() > best.getFitness()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private void evolve(int island, int generations, Phaser migration) {
+        GeneticEngine<G> ga = islands.get(island);
+        ga.initialize();
+        try {
+            while (ga.getGeneration() < generations) {
+                ga.step();
+                if (islands.size() > 1 && ga.getGeneration() % migrationInterval == 0) {
+                    emigrate(island);
+                    migration.arriveAndAwaitAdvance();
+                    immigrate(island);
+                }
+            }
+        } finally {
+            // A finished (or failed) island must not hold the others at the phaser
+            migration.arriveAndDeregister();
+        }
+    }
+
+    private void emigrate(int island) {
+        Individual<G> best = islands.get(island).getBest();
+        for (int target : neighbours(island)) {
+            inboxes.get(target).offer(new Migrant<>(island, copy(best)));
+        }
+    }
+
+    private void immigrate(int island) {
+        // All migrants of this round were queued before the phaser advanced,
+        // later rounds can only sit behind them
+        int expected = topology == Topology.RING ? 1 : islands.size() - 1;
+        List<Migrant<G>> arrived = new ArrayList<>(expected);
+        for (int i = 0; i < expected; i++) {
+            Migrant<G> migrant = inboxes.get(island).poll();
+            if (migrant != null) {
+                arrived.add(migrant);
+            }
+        }
+        arrived.sort(Comparator.comparingInt(migrant -> migrant.source));
+        Population<G> population = islands.get(island).getPopulation();
+        for (Migrant<G> migrant : arrived) {
+            population.replaceWorst(migrant.individual);
+        }
+    }
+
+    private int[] neighbours(int island) {
+        int k = islands.size();
+        if (topology == Topology.RING) {
+            return new int[] {(island + 1) % k};
+        }
+        int[] targets = new int[k - 1];
+        for (int i = 0, j = 0; i < k; i++) {
+            if (i != island) {
+                targets[j++] = i;
+            }
+        }
+        return targets;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Individual<G> copy(Individual<G> individual) {
+        Individual<G> copy = new Individual<>((G) individual.getGenome().copy());
+        copy.setFitness(individual.getFitness());
+        return copy;
+    }
+
+    private static final class Migrant<G extends Genome> {
+
+        private final int source;
+        private final Individual<G> individual;
+
+        Migrant(int source, Individual<G> individual) {
+            this.source = source;
+            this.individual = individual;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package ga_engine;
+
+import jdk.jfr.EventType;
+
+/**
+ * Commits every sampled generation as a "ga_engine.Generation" JFR event. While no
+ * recording with that event enabled is running a sample costs one flag check on the
+ * event type and allocates nothing. During a recording it allocates one small event
+ * object per sampled generation.
+ */
+public class JfrGenerationListener implements GenerationListener {
+
+    private static final EventType TYPE = EventType.getEventType(GenerationEvent.class);
+
+    @Override
+    public void onGeneration(GenerationMetrics metrics) {
+        if (!TYPE.isEnabled()) {
+            return;
+        }
+        GenerationEvent event = new GenerationEvent();
+        event.generation = metrics.getGeneration();
+        event.evaluations = metrics.getEvaluations();
+        event.best = metrics.getBest();
+        event.mean = metrics.getMean();
+        event.worst = metrics.getWorst();
+        event.diversity = metrics.getDiversity();
+        event.evaluationsPerSecond = metrics.getEvaluationsPerSecond();
+        event.time = metrics.getNanos();
+        event.select = metrics.getNanos(GenerationMetrics.Stage.SELECT);
+        event.breed = metrics.getNanos(GenerationMetrics.Stage.BREED);
+        event.evaluate = metrics.getNanos(GenerationMetrics.Stage.EVALUATE);
+        event.replace = metrics.getNanos(GenerationMetrics.Stage.REPLACE);
+        event.allocated = metrics.getAllocatedBytes();
+        event.commit();
+    }
+
+}
@@ -0,0 +1,87 @@
+package ga_engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntToDoubleFunction;
+
+// Fills one GenerationMetrics for every sampleInterval-th generation and hands it to the
+// listener. Unsampled generations only pay for the sampling check in each call.
+final class MetricsRecorder {
+
+    // Never samples, for engines without a listener
+    static final MetricsRecorder OFF = new MetricsRecorder(null, 1);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private final GenerationListener listener;
+    private final int sampleInterval;
+    private final GenerationMetrics metrics = new GenerationMetrics();
+
+    private boolean sampling;
+    private long start;
+    private long lap;
+    private long allocated;
+    private long lastTime = System.nanoTime();
+    private long lastEvaluations;
+
+    MetricsRecorder(GenerationListener listener, int sampleInterval) {
+        this.listener = listener;
+        this.sampleInterval = sampleInterval;
+    }
+
+    // generation is the number the generation will have once it is done
+    void begin(int generation) {
+        sampling = listener != null && generation % sampleInterval == 0;
+        if (!sampling) {
+            return;
+        }
+        metrics.clearStages();
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        lap = start;
+    }
+
+    boolean isSampling() {
+        return sampling;
+    }
+
+    // Charge the time since the previous lap to stage
+    void lap(GenerationMetrics.Stage stage) {
+        if (!sampling) {
+            return;
+        }
+        long now = System.nanoTime();
+        metrics.addNanos(stage, now - lap);
+        lap = now;
+    }
+
+    // Only call when sampling. best and worst come from the engine's heaps, fitness(i) must
+    // give the fitness of individual i and is only read if the listener asks for the mean
+    // or diversity.
+    void finish(int generation, long evaluations, double best, double worst, int size,
+            IntToDoubleFunction fitness) {
+        long end = System.nanoTime();
+        long bytes = allocatedBytes();
+        metrics.setGeneration(generation, evaluations);
+        metrics.setNanos(end - start);
+        metrics.setAllocatedBytes(bytes < 0 ? -1 : bytes - allocated);
+        metrics.setEvaluationsPerSecond((evaluations - lastEvaluations) * 1e9 / Math.max(1, end - lastTime));
+        lastEvaluations = evaluations;
+        lastTime = end;
+
+        metrics.setFitness(best, worst, size, fitness);
+        listener.onGeneration(metrics);
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+}
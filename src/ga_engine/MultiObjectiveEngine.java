@@ -0,0 +1,288 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * NSGA-II: instead of one scalar fitness every genome gets a vector of objectives and the
+ * engine keeps a spread-out approximation of the Pareto front. A generation breeds
+ * populationSize children with binary tournaments on (front, crowding distance), then
+ * sorts parents and children together into fronts and keeps whole fronts while they fit,
+ * the front that does not fit by largest crowding distance.
+ *
+ * Objective values live in one flat array, slots 0..N-1 are the population and slots
+ * N..2N-1 this generation's children. Genomes that drop out become the buffers of the
+ * next children, so after the first generation nothing is allocated per child.
+ */
+public class MultiObjectiveEngine<G extends Genome> {
+
+    private final int populationSize;
+    private final int objectiveCount;
+    private final GenomeFactory<G> factory;
+    private final Objectives<G> objectives;
+    private final Crossover<G> crossover;
+    private final NondominatedSorting sorting;
+
+    private Mutation<G> mutation;
+    private double mutationRate;
+    private RandomGenerator random = RandomStreams.newStream();
+
+    private int generation;
+    private long evaluations;
+    // Second child buffer for crossovers at the last slot, when only one child fits
+    private G spare;
+
+    // Population in slots 0..N-1, children (or spare buffers) in N..2N-1
+    private List<G> genomes;
+    private List<G> next;
+    private double[] values;
+    private double[] nextValues;
+    private final int[] rank;
+    private final double[] crowding;
+    private final int[] nextRank;
+    private final double[] nextCrowding;
+    // Slots grouped by front, and the slots that survive
+    private final int[] byFront;
+    private final int[] scratch;
+    private final int[] frontStart;
+    private final int[] survivors;
+    private final boolean[] kept;
+
+    public MultiObjectiveEngine(int populationSize, int objectiveCount, GenomeFactory<G> factory,
+            Objectives<G> objectives, Crossover<G> crossover) {
+        this.populationSize = populationSize;
+        this.objectiveCount = objectiveCount;
+        this.factory = factory;
+        this.objectives = objectives;
+        this.crossover = crossover;
+        this.sorting = new NondominatedSorting(objectiveCount);
+        int slots = 2 * populationSize;
+        rank = new int[slots];
+        crowding = new double[slots];
+        nextRank = new int[slots];
+        nextCrowding = new double[slots];
+        byFront = new int[slots];
+        scratch = new int[slots];
+        frontStart = new int[slots + 1];
+        survivors = new int[populationSize];
+        kept = new boolean[slots];
+    }
+
+    // Get and set methods
+    public void setMutation(Mutation<G> mutation, double mutationRate) {
+        this.mutation = mutation;
+        this.mutationRate = mutationRate;
+    }
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    // Number of objective function calls so far
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    // Genome in population slot index, a recycled buffer after the next step()
+    public G getGenome(int index) {
+        return genomes.get(index);
+    }
+
+    public double getObjective(int index, int objective) {
+        return values[index * objectiveCount + objective];
+    }
+
+    // Front of the individual, 0 is the non-dominated front
+    public int getRank(int index) {
+        return rank[index];
+    }
+
+    public double getCrowding(int index) {
+        return crowding[index];
+    }
+
+    // Population slots on the Pareto front
+    public int[] getFront() {
+        int count = 0;
+        for (int i = 0; i < populationSize; i++) {
+            if (rank[i] == 0) {
+                count++;
+            }
+        }
+        int[] front = new int[count];
+        count = 0;
+        for (int i = 0; i < populationSize; i++) {
+            if (rank[i] == 0) {
+                front[count++] = i;
+            }
+        }
+        return front;
+    }
+
+    // Initialize population and evaluate the initial objectives
+    public void initialize() {
+        int slots = 2 * populationSize;
+        genomes = new ArrayList<>(slots);
+        next = new ArrayList<>(slots);
+        values = new double[slots * objectiveCount];
+        nextValues = new double[slots * objectiveCount];
+        for (int i = 0; i < populationSize; i++) {
+            G genome = factory.create(random);
+            genomes.add(genome);
+            objectives.evaluate(genome, values, i * objectiveCount);
+        }
+        for (int i = populationSize; i < slots; i++) {
+            genomes.add(null);
+        }
+        generation = 0;
+        evaluations = populationSize;
+        survive(populationSize);
+    }
+
+    // One generation: breed N children, sort parents and children into fronts, keep N
+    public void step() {
+        if (genomes == null) {
+            initialize();
+        }
+
+        // Breed into the spare buffers of slots N..2N-1
+        int slots = 2 * populationSize;
+        int child = populationSize;
+        while (child < slots) {
+            G parent1 = genomes.get(select());
+            G parent2 = genomes.get(select());
+            G child1 = buffer(child, parent1);
+            G child2 = child + 1 < slots ? buffer(child + 1, parent1) : null;
+            if (child2 == null && spare == null) {
+                spare = copy(parent1);
+            }
+            int written = crossover.crossover(parent1, parent2, child1, child2 != null ? child2 : spare, random);
+            child = addChild(child, child1);
+            if (written >= 2 && child2 != null) {
+                child = addChild(child, child2);
+            }
+        }
+        evaluations += populationSize;
+
+        survive(slots);
+        generation++;
+    }
+
+    // Run a fixed number of generations and return the Pareto front
+    public int[] run(int generations) {
+        if (genomes == null) {
+            initialize();
+        }
+        while (generation < generations) {
+            step();
+        }
+        return getFront();
+    }
+
+    private G buffer(int slot, G template) {
+        G genome = genomes.get(slot);
+        if (genome == null) {
+            genome = copy(template);
+            genomes.set(slot, genome);
+        }
+        return genome;
+    }
+
+    @SuppressWarnings("unchecked")
+    private G copy(G genome) {
+        return (G) genome.copy();
+    }
+
+    private int addChild(int slot, G child) {
+        if (mutation != null && random.nextDouble() < mutationRate) {
+            mutation.mutate(child, random);
+        }
+        objectives.evaluate(child, values, slot * objectiveCount);
+        return slot + 1;
+    }
+
+    // Binary tournament on the crowded comparison: lower front wins, then larger crowding distance
+    private int select() {
+        int a = random.nextInt(populationSize);
+        int b = random.nextInt(populationSize);
+        if (rank[a] != rank[b]) {
+            return rank[a] < rank[b] ? a : b;
+        }
+        return crowding[a] >= crowding[b] ? a : b;
+    }
+
+    // Rank the first count slots and move the populationSize survivors into slots 0..N-1
+    private void survive(int count) {
+        int fronts = sorting.sort(values, count, rank);
+
+        // Counting sort of the slots by front
+        for (int f = 0; f <= fronts; f++) {
+            frontStart[f] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            frontStart[rank[i] + 1]++;
+        }
+        for (int f = 0; f < fronts; f++) {
+            frontStart[f + 1] += frontStart[f];
+        }
+        for (int i = 0; i < count; i++) {
+            byFront[frontStart[rank[i]]++] = i;
+        }
+        for (int f = fronts; f > 0; f--) {
+            frontStart[f] = frontStart[f - 1];
+        }
+        frontStart[0] = 0;
+
+        // Whole fronts while they fit, the last one by crowding distance
+        int taken = 0;
+        for (int f = 0; f < fronts && taken < populationSize; f++) {
+            int from = frontStart[f];
+            int to = frontStart[f + 1];
+            sorting.crowding(values, byFront, from, to, crowding);
+            if (taken + to - from > populationSize) {
+                NondominatedSorting.sortIndices(byFront, from, to, scratch,
+                        (a, b) -> Double.compare(crowding[b], crowding[a]));
+                to = from + populationSize - taken;
+            }
+            System.arraycopy(byFront, from, survivors, taken, to - from);
+            taken += to - from;
+        }
+
+        // Survivors to the front slots, the others become buffers for the next children
+        for (int i = 0; i < count; i++) {
+            kept[i] = false;
+        }
+        next.clear();
+        for (int i = 0; i < populationSize; i++) {
+            int slot = survivors[i];
+            kept[slot] = true;
+            next.add(genomes.get(slot));
+            System.arraycopy(values, slot * objectiveCount, nextValues, i * objectiveCount, objectiveCount);
+            nextRank[i] = rank[slot];
+            nextCrowding[i] = crowding[slot];
+        }
+        for (int i = 0; i < 2 * populationSize; i++) {
+            if (i >= count || !kept[i]) {
+                next.add(genomes.get(i));
+            }
+        }
+        List<G> swap = genomes;
+        genomes = next;
+        next = swap;
+        double[] swapValues = values;
+        values = nextValues;
+        nextValues = swapValues;
+        System.arraycopy(nextRank, 0, rank, 0, populationSize);
+        System.arraycopy(nextCrowding, 0, crowding, 0, populationSize);
+    }
+
+}
@@ -0,0 +1,11 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+// Changes a freshly bred child in place
+@FunctionalInterface
+public interface Mutation<G extends Genome> {
+
+    void mutate(G genome, RandomGenerator random);
+
+}
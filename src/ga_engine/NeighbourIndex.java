@@ -0,0 +1,172 @@
+package ga_engine;
+
+// Archive of points with a value each, searchable for the k nearest points. The
+// indexed part is an implicit kd-tree (median of a range at its middle, children in
+// the two halves, axes in turn), newer points wait in an unindexed tail that is
+// scanned linearly until it grows to a quarter of the tree and the tree is rebuilt.
+// A full archive drops its older half, the surrogate follows the population.
+final class NeighbourIndex {
+
+    private static final int MIN_TAIL = 64;
+
+    private final int dimensions;
+    private final int capacity;
+    private final double[] points;
+    private final double[] values;
+    private final int[] tree;
+    private int size;
+    private int indexed;
+
+    // Search state, the index is used from one thread
+    private double[] query;
+    private int k;
+    private int count;
+    private int[] found;
+    private double[] distances;
+
+    NeighbourIndex(int dimensions, int capacity) {
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        points = new double[capacity * dimensions];
+        values = new double[capacity];
+        tree = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    double value(int point) {
+        return values[point];
+    }
+
+    void add(double[] point, double value) {
+        if (size == capacity) {
+            int keep = capacity / 2;
+            System.arraycopy(points, (size - keep) * dimensions, points, 0, keep * dimensions);
+            System.arraycopy(values, size - keep, values, 0, keep);
+            size = keep;
+            indexed = 0;
+        }
+        System.arraycopy(point, 0, points, size * dimensions, dimensions);
+        values[size++] = value;
+        if (size - indexed > Math.max(MIN_TAIL, indexed / 4)) {
+            rebuild();
+        }
+    }
+
+    // Fill found and distances (squared) with up to k nearest points, closest first,
+    // and return how many were found
+    int nearest(double[] query, int k, int[] found, double[] distances) {
+        this.query = query;
+        this.k = k;
+        this.found = found;
+        this.distances = distances;
+        count = 0;
+        search(0, indexed, 0);
+        for (int point = indexed; point < size; point++) {
+            offer(point);
+        }
+        this.query = null;
+        this.found = null;
+        this.distances = null;
+        return count;
+    }
+
+    private void search(int from, int to, int axis) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int point = tree[mid];
+        offer(point);
+        double delta = query[axis] - points[point * dimensions + axis];
+        int next = axis + 1 == dimensions ? 0 : axis + 1;
+        if (delta < 0) {
+            search(from, mid, next);
+            if (count < k || delta * delta < distances[count - 1]) {
+                search(mid + 1, to, next);
+            }
+        } else {
+            search(mid + 1, to, next);
+            if (count < k || delta * delta < distances[count - 1]) {
+                search(from, mid, next);
+            }
+        }
+    }
+
+    // Insert point into the sorted candidate list if it is close enough
+    private void offer(int point) {
+        double distance = 0;
+        int offset = point * dimensions;
+        for (int d = 0; d < dimensions; d++) {
+            double delta = query[d] - points[offset + d];
+            distance += delta * delta;
+        }
+        if (count == k && distance >= distances[k - 1]) {
+            return;
+        }
+        int i = count < k ? count++ : k - 1;
+        while (i > 0 && distances[i - 1] > distance) {
+            distances[i] = distances[i - 1];
+            found[i] = found[i - 1];
+            i--;
+        }
+        distances[i] = distance;
+        found[i] = point;
+    }
+
+    private void rebuild() {
+        for (int i = 0; i < size; i++) {
+            tree[i] = i;
+        }
+        indexed = size;
+        build(0, indexed, 0);
+    }
+
+    private void build(int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        selectMedian(from, to - 1, mid, axis);
+        int next = axis + 1 == dimensions ? 0 : axis + 1;
+        build(from, mid, next);
+        build(mid + 1, to, next);
+    }
+
+    // Quickselect: put the point with rank target on axis at tree[target], smaller
+    // coordinates before it and larger after
+    private void selectMedian(int left, int right, int target, int axis) {
+        while (left < right) {
+            double pivot = coordinate(tree[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(tree[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(tree[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i++] = tree[j];
+                    tree[j--] = swap;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int point, int axis) {
+        return points[point * dimensions + axis];
+    }
+
+}
@@ -0,0 +1,240 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Non-dominated sorting and crowding distance over a flat objective array (point i has
+ * its m objectives at values[i * m .. i * m + m - 1], all maximized).
+ *
+ * Sorting is ENS-BS (efficient non-dominated sort with binary search): points are sorted
+ * lexicographically once, so a point can only be dominated by points before it. Each
+ * point then goes to the first front none of whose members dominates it, found by binary
+ * search over the fronts, a front is checked from its newest member backwards. With two
+ * objectives the newest member of a front is the only one that can dominate the next
+ * point, which makes the whole sort O(N log N). With three objectives every member of an
+ * earlier front is at least as good on the first, so a front only has to answer a 2D
+ * question, kept as a staircase of its best (second, third) pairs in a sorted map:
+ * O(N log N log F). With more objectives fronts are scanned, which is still far below the
+ * O(M N^2) of the pairwise version on real populations.
+ *
+ * Crowding distance sorts the members of a front once per objective. Scratch arrays are
+ * kept between calls, an instance is used from one thread.
+ *
+ * Values must not be NaN. -0.0 and 0.0 are the same value everywhere: dominance uses
+ * primitive comparisons, and sorts and map keys see v + 0.0, which turns -0.0 into 0.0.
+ */
+public class NondominatedSorting {
+
+    private final int objectives;
+
+    private int[] order = new int[0];
+    private int[] buffer = new int[0];
+    private int[] previous = new int[0];
+    private int[] tail = new int[0];
+    private double[] values;
+    // Three objectives: per front, second objective -> {third, best first} of its staircase
+    private final List<TreeMap<Double, double[]>> staircases = new ArrayList<>();
+
+    public NondominatedSorting(int objectives) {
+        if (objectives < 1) {
+            throw new IllegalArgumentException("objectives must be positive: " + objectives);
+        }
+        this.objectives = objectives;
+    }
+
+    // Write the front of each of the first n points into rank (0 is the Pareto front)
+    // and return the number of fronts.
+    public int sort(double[] values, int n, int[] rank) {
+        if (order.length < n) {
+            order = new int[n];
+            buffer = new int[n];
+            previous = new int[n];
+            tail = new int[n];
+        }
+        this.values = values;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sortIndices(order, 0, n, buffer, this::compareDescending);
+
+        int fronts = 0;
+        for (int i = 0; i < n; i++) {
+            int point = order[i];
+            // Lowest front that does not dominate point, later fronts never do either
+            int low = 0;
+            int high = fronts;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isDominated(point, mid)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == fronts) {
+                tail[fronts++] = -1;
+                if (objectives == 3) {
+                    if (staircases.size() < fronts) {
+                        staircases.add(new TreeMap<>());
+                    }
+                    staircases.get(low).clear();
+                }
+            }
+            if (objectives == 3) {
+                addStep(staircases.get(low), point);
+            }
+            previous[point] = tail[low];
+            tail[low] = point;
+            rank[point] = low;
+        }
+        this.values = null;
+        return fronts;
+    }
+
+    // Crowding distance of the points members[from..to-1] (one front): the boundary points
+    // of every objective get infinity, the others the normalized size of the box spanned
+    // by their neighbours. Reorders that part of members.
+    public void crowding(double[] values, int[] members, int from, int to, double[] distance) {
+        if (buffer.length < to) {
+            buffer = new int[to];
+        }
+        for (int i = from; i < to; i++) {
+            distance[members[i]] = to - from <= 2 ? Double.POSITIVE_INFINITY : 0;
+        }
+        if (to - from <= 2) {
+            return;
+        }
+        int first = from;
+        int last = to - 1;
+        for (int objective = 0; objective < objectives; objective++) {
+            int axis = objective;
+            sortIndices(members, from, to, buffer,
+                    (a, b) -> Double.compare(values[a * objectives + axis] + 0.0, values[b * objectives + axis] + 0.0));
+            distance[members[first]] = Double.POSITIVE_INFINITY;
+            distance[members[last]] = Double.POSITIVE_INFINITY;
+            double range = values[members[last] * objectives + axis] - values[members[first] * objectives + axis];
+            if (!(range > 0 && range < Double.POSITIVE_INFINITY)) {
+                continue;
+            }
+            for (int i = first + 1; i < last; i++) {
+                double gap = values[members[i + 1] * objectives + axis] - values[members[i - 1] * objectives + axis];
+                if (gap < Double.POSITIVE_INFINITY) {
+                    distance[members[i]] += gap / range;
+                }
+            }
+        }
+    }
+
+    private boolean isDominated(int point, int front) {
+        if (objectives == 2) {
+            return dominates(tail[front], point);
+        }
+        if (objectives == 3) {
+            return isDominated(staircases.get(front), point);
+        }
+        for (int member = tail[front]; member != -1; member = previous[member]) {
+            if (dominates(member, point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The step with the smallest second objective not below the point's has the largest
+    // third objective of all such members. If it only ties the point on both, a member
+    // dominates exactly when it is better on the first.
+    private boolean isDominated(TreeMap<Double, double[]> staircase, int point) {
+        int offset = point * objectives;
+        Map.Entry<Double, double[]> step = staircase.ceilingEntry(values[offset + 1] + 0.0);
+        if (step == null || step.getValue()[0] < values[offset + 2]) {
+            return false;
+        }
+        if (step.getKey() > values[offset + 1] || step.getValue()[0] > values[offset + 2]) {
+            return true;
+        }
+        return step.getValue()[1] > values[offset];
+    }
+
+    // Add a point that no member dominates and drop the steps it covers
+    private void addStep(TreeMap<Double, double[]> staircase, int point) {
+        int offset = point * objectives;
+        double second = values[offset + 1] + 0.0;
+        double third = values[offset + 2];
+        Map.Entry<Double, double[]> above = staircase.ceilingEntry(second);
+        if (above != null && above.getValue()[0] >= third) {
+            // Ties an existing step, which already holds the better first objective
+            return;
+        }
+        Map.Entry<Double, double[]> below = staircase.floorEntry(second);
+        while (below != null && below.getValue()[0] <= third) {
+            staircase.remove(below.getKey());
+            below = staircase.lowerEntry(below.getKey());
+        }
+        staircase.put(second, new double[] {third, values[offset]});
+    }
+
+    // a is at least as good everywhere and better somewhere
+    private boolean dominates(int a, int b) {
+        int offsetA = a * objectives;
+        int offsetB = b * objectives;
+        boolean better = false;
+        for (int i = 0; i < objectives; i++) {
+            double x = values[offsetA + i];
+            double y = values[offsetB + i];
+            if (x < y) {
+                return false;
+            }
+            better |= x > y;
+        }
+        return better;
+    }
+
+    // Best first: descending on the first objective, ties broken by the next ones
+    private int compareDescending(int a, int b) {
+        int offsetA = a * objectives;
+        int offsetB = b * objectives;
+        for (int i = 0; i < objectives; i++) {
+            int cmp = Double.compare(values[offsetB + i] + 0.0, values[offsetA + i] + 0.0);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    // Bottom-up merge sort of index[from..to-1], stable, O(N log N) without boxing
+    static void sortIndices(int[] index, int from, int to, int[] buffer, IntBinaryOperator comparator) {
+        int[] source = index;
+        int[] target = buffer;
+        int n = to - from;
+        for (int width = 1; width < n; width *= 2) {
+            for (int left = from; left < to; left += 2 * width) {
+                int mid = Math.min(left + width, to);
+                int right = Math.min(left + 2 * width, to);
+                int i = left;
+                int j = mid;
+                int k = left;
+                while (i < mid && j < right) {
+                    target[k++] = comparator.applyAsInt(source[j], source[i]) < 0 ? source[j++] : source[i++];
+                }
+                while (i < mid) {
+                    target[k++] = source[i++];
+                }
+                while (j < right) {
+                    target[k++] = source[j++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != index) {
+            System.arraycopy(source, from, index, from, n);
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package ga_engine;
+
+// Scores a genome on several objectives at once, writing them to values[offset..].
+// Every objective is maximized, negate the ones to be minimized (e.g. a cost).
+@FunctionalInterface
+public interface Objectives<G extends Genome> {
+
+    void evaluate(G genome, double[] values, int offset);
+
+}
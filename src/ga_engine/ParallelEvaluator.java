@@ -0,0 +1,102 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a batch into ranges of at most grain individuals and scores them on a
+ * ForkJoinPool (recursive splitting, work stealing) or on any other executor
+ * (one task per range). Each individual only receives its own fitness and nothing
+ * is reduced across threads, so results do not depend on the thread count.
+ * The fitness function must be safe to call from several threads at once.
+ */
+public class ParallelEvaluator<G extends Genome> implements Evaluator<G> {
+
+    private static final int DEFAULT_GRAIN = 16;
+
+    private final ExecutorService executor;
+    private final int grain;
+
+    public ParallelEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRAIN);
+    }
+
+    public ParallelEvaluator(ExecutorService executor, int grain) {
+        this.executor = executor;
+        this.grain = Math.max(1, grain);
+    }
+
+    @Override
+    public int evaluate(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction) {
+        if (batch.size() <= grain) {
+            evaluate(batch, fitnessFunction, 0, batch.size());
+        } else if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new EvaluateRange(batch, fitnessFunction, 0, batch.size()));
+        } else {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int from = 0; from < batch.size(); from += grain) {
+                int start = from;
+                int end = Math.min(from + grain, batch.size());
+                tasks.add(() -> {
+                    evaluate(batch, fitnessFunction, start, end);
+                    return null;
+                });
+            }
+            try {
+                for (Future<Void> future : executor.invokeAll(tasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Evaluation interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Fitness evaluation failed", e.getCause());
+            }
+        }
+        return batch.size();
+    }
+
+    private void evaluate(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Individual<G> individual = batch.get(i);
+            individual.setFitness(fitnessFunction.evaluate(individual.getGenome()));
+        }
+    }
+
+    // Halve the range until it fits into one grain
+    private class EvaluateRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Individual<G>> batch;
+        private final FitnessFunction<G> fitnessFunction;
+        private final int from;
+        private final int to;
+
+        EvaluateRange(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction, int from, int to) {
+            this.batch = batch;
+            this.fitnessFunction = fitnessFunction;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                evaluate(batch, fitnessFunction, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateRange(batch, fitnessFunction, from, mid),
+                    new EvaluateRange(batch, fitnessFunction, mid, to));
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Individuals plus two indexed heaps over their fitness: reading the best or worst
+// individual is O(1), replacing one is O(log N). Fitness changes have to go through
+// the population (evaluate, set, update) so the heaps stay in order.
+public class Population<G extends Genome> {
+
+    private final List<Individual<G>> individuals;
+    private final List<Individual<G>> pending = new ArrayList<>();
+    private double[] fitness;
+    private final IndexedHeap worst = new IndexedHeap(false);
+    private final IndexedHeap best = new IndexedHeap(true);
+
+    public Population(int size, GenomeFactory<G> factory, RandomGenerator random) {
+        individuals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            individuals.add(new Individual<>(factory.create(random)));
+        }
+        rebuild();
+    }
+
+    // Takes over already scored individuals, e.g. from a checkpoint
+    Population(List<Individual<G>> individuals) {
+        this.individuals = individuals;
+        rebuild();
+    }
+
+    public int size() {
+        return individuals.size();
+    }
+
+    public Individual<G> get(int index) {
+        return individuals.get(index);
+    }
+
+    // Fitness key of slot index, read from a flat array without touching the individual
+    public double getFitness(int index) {
+        return fitness[index];
+    }
+
+    // Put individual into slot index and return the one it replaced, O(log N)
+    public Individual<G> set(int index, Individual<G> individual) {
+        Individual<G> previous = individuals.set(index, individual);
+        update(index);
+        return previous;
+    }
+
+    // Re-read the fitness of the individual at index, O(log N)
+    public void update(int index) {
+        fitness[index] = individuals.get(index).getFitness();
+        worst.update(index);
+        best.update(index);
+    }
+
+    // Compute and assign fitness to every individual that has no cached fitness yet,
+    // returns the number of fitness function calls
+    public int evaluate(FitnessFunction<G> fitnessFunction) {
+        return evaluate(fitnessFunction, new SequentialEvaluator<>());
+    }
+
+    public int evaluate(FitnessFunction<G> fitnessFunction, Evaluator<G> evaluator) {
+        pending.clear();
+        for (int i = 0; i < individuals.size(); i++) {
+            if (!individuals.get(i).isEvaluated()) {
+                pending.add(individuals.get(i));
+            }
+        }
+        int evaluations = 0;
+        if (!pending.isEmpty()) {
+            evaluations = evaluator.evaluate(pending, fitnessFunction);
+            pending.clear();
+            rebuild();
+        }
+        return evaluations;
+    }
+
+    // Drop all cached fitness values, e.g. when the fitness function has changed
+    public void invalidate() {
+        for (Individual<G> individual : individuals) {
+            individual.invalidate();
+        }
+    }
+
+    // Replace the individual with the lowest fitness and return it, O(log N)
+    public Individual<G> replaceWorst(Individual<G> child) {
+        return set(worst.peek(), child);
+    }
+
+    public int getWorstIndex() {
+        return worst.peek();
+    }
+
+    public int getBestIndex() {
+        return best.peek();
+    }
+
+    // Extract an individual with best fitness score, O(1)
+    public Individual<G> getBest() {
+        return individuals.get(best.peek());
+    }
+
+    public Individual<G> getWorst() {
+        return individuals.get(worst.peek());
+    }
+
+    // Sort the population by fitness in descending order
+    public void sortByFitness() {
+        individuals.sort(Comparator.comparingDouble(Individual<G>::getFitness).reversed());
+        rebuild();
+    }
+
+    // Move the k fittest individuals into slots 0..k-1, in no particular order.
+    // Introselect: quickselect with a three-way partition (ties are common) and
+    // median-of-three pivots, O(N) on average; after too many bad pivots the rest
+    // of the range is sorted instead, so the worst case stays O(N log N).
+    public void selectBest(int k) {
+        int left = 0;
+        int right = individuals.size() - 1;
+        int target = k - 1;
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(individuals.size()));
+        while (k > 0 && k < individuals.size() && left < right) {
+            if (budget-- == 0) {
+                sortRange(left, right + 1);
+                break;
+            }
+            double pivot = medianOfThree(left, (left + right) >>> 1, right);
+            // Partition into [left, lt) fitter than pivot, [lt, gt] equal, (gt, right] weaker
+            int lt = left;
+            int gt = right;
+            int i = left;
+            while (i <= gt) {
+                int cmp = Double.compare(fitness[i], pivot);
+                if (cmp > 0) {
+                    swap(lt++, i++);
+                } else if (cmp < 0) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (target < lt) {
+                right = lt - 1;
+            } else if (target > gt) {
+                left = gt + 1;
+            } else {
+                break;
+            }
+        }
+        worst.build(fitness, fitness.length);
+        best.build(fitness, fitness.length);
+    }
+
+    private double medianOfThree(int a, int b, int c) {
+        double x = fitness[a];
+        double y = fitness[b];
+        double z = fitness[c];
+        return Math.max(Math.min(x, y), Math.min(Math.max(x, y), z));
+    }
+
+    private void swap(int i, int j) {
+        individuals.set(i, individuals.set(j, individuals.get(i)));
+        double key = fitness[i];
+        fitness[i] = fitness[j];
+        fitness[j] = key;
+    }
+
+    // Fallback for selectBest: sort slots from..to-1 by fitness, descending
+    private void sortRange(int from, int to) {
+        individuals.subList(from, to).sort(Comparator.comparingDouble(Individual<G>::getFitness).reversed());
+        for (int i = from; i < to; i++) {
+            fitness[i] = individuals.get(i).getFitness();
+        }
+    }
+
+    // Overwrite the slots from, from+1, ... with next and reheapify once, O(N)
+    public void replaceFrom(int from, List<Individual<G>> next) {
+        for (int i = 0; i < next.size(); i++) {
+            individuals.set(from + i, next.get(i));
+        }
+        rebuild();
+    }
+
+    // Reload the fitness keys and heapify both heaps in O(N)
+    private void rebuild() {
+        if (fitness == null || fitness.length != individuals.size()) {
+            fitness = new double[individuals.size()];
+        }
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = individuals.get(i).getFitness();
+        }
+        worst.build(fitness, fitness.length);
+        best.build(fitness, fitness.length);
+    }
+
+}
@@ -0,0 +1,38 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Central source of random numbers. Every engine, island or worker gets its own
+ * SplitMix64 stream split off one master generator, so no two threads ever
+ * share a generator (no contention on a common atomic seed like java.util.Random or
+ * Math.random) and a run started from the same master seed, with the streams handed
+ * out in the same order, draws exactly the same numbers.
+ * The streams are SplitMixRandom, which draws what SplittableRandom would but can be
+ * checkpointed.
+ */
+public class RandomStreams {
+
+    private final SplitMixRandom master;
+
+    // Reproducible streams
+    public RandomStreams(long seed) {
+        master = new SplitMixRandom(seed);
+    }
+
+    // Randomly seeded streams
+    public RandomStreams() {
+        master = new SplitMixRandom();
+    }
+
+    // Next independent stream; the n-th call always returns the same stream for a given seed
+    public synchronized RandomGenerator split() {
+        return master.split();
+    }
+
+    // A fresh, randomly seeded stream for components that were not given one
+    public static RandomGenerator newStream() {
+        return new SplitMixRandom();
+    }
+
+}
@@ -0,0 +1,27 @@
+package ga_engine;
+
+import java.util.List;
+
+// Steady-state replacement: each generation breeds a few children which
+// take the places of the weakest individuals
+public class ReplaceWorst<G extends Genome> implements Replacement<G> {
+
+    private final int offspring;
+
+    public ReplaceWorst(int offspring) {
+        this.offspring = offspring;
+    }
+
+    @Override
+    public int offspring(Population<G> population) {
+        return offspring;
+    }
+
+    @Override
+    public void replace(Population<G> population, List<Individual<G>> offspring, List<Individual<G>> evicted) {
+        for (int i = 0; i < offspring.size(); i++) {
+            evicted.add(population.replaceWorst(offspring.get(i)));
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package ga_engine;
+
+import java.util.List;
+
+// Decides how many children a generation needs and how they enter the population.
+// Individuals that drop out of the population go to evicted so their buffers can be reused.
+public interface Replacement<G extends Genome> {
+
+    int offspring(Population<G> population);
+
+    void replace(Population<G> population, List<Individual<G>> offspring, List<Individual<G>> evicted);
+
+}
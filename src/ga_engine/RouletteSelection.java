@@ -0,0 +1,108 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fitness-proportional (roulette wheel) selection with Vose's alias method: prepare()
+ * builds the table in O(N) once per generation, every draw is then O(1), one random
+ * slot and one coin flip. Draws only read the table and are safe from several threads.
+ *
+ * Weights are the fitness values, shifted up by the lowest one when some are negative.
+ * If any fitness is +Infinity only those individuals are drawn; NaN and -Infinity
+ * get no weight, and an all-zero population is drawn uniformly.
+ */
+public class RouletteSelection<G extends Genome> implements Selection<G> {
+
+    private double[] probability = new double[0];
+    private int[] alias = new int[0];
+    // Worklists of the build, kept so a rebuild allocates nothing
+    private int[] small = new int[0];
+    private int[] large = new int[0];
+
+    @Override
+    public void prepare(Population<G> population, RandomGenerator random) {
+        int n = population.size();
+        if (probability.length != n) {
+            probability = new double[n];
+            alias = new int[n];
+            small = new int[n];
+            large = new int[n];
+        }
+        double total = weigh(population, probability);
+
+        // Scale to mean 1, then pair every short column with a tall one
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            probability[i] = probability[i] * n / total;
+            alias[i] = i;
+            if (probability[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[largeCount - 1];
+            alias[less] = more;
+            probability[more] -= 1 - probability[less];
+            if (probability[more] < 1) {
+                largeCount--;
+                small[smallCount++] = more;
+            }
+        }
+        // Whatever is left only missed 1 by rounding
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    @Override
+    public int selectIndex(Population<G> population, RandomGenerator random) {
+        if (probability.length != population.size()) {
+            throw new IllegalStateException("prepare() has not been called for this population");
+        }
+        int index = random.nextInt(probability.length);
+        return random.nextDouble() < probability[index] ? index : alias[index];
+    }
+
+    // Fill weights with the selection weight of every slot and return their sum
+    static double weigh(Population<?> population, double[] weights) {
+        int n = population.size();
+        double min = 0;
+        boolean infinite = false;
+        for (int i = 0; i < n; i++) {
+            double fitness = population.getFitness(i);
+            if (fitness == Double.POSITIVE_INFINITY) {
+                infinite = true;
+            } else if (fitness < min && fitness != Double.NEGATIVE_INFINITY) {
+                min = fitness;
+            }
+        }
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            double fitness = population.getFitness(i);
+            double weight;
+            if (infinite) {
+                weight = fitness == Double.POSITIVE_INFINITY ? 1 : 0;
+            } else {
+                // NaN and -Infinity fail the comparison and get no weight
+                weight = fitness > Double.NEGATIVE_INFINITY ? fitness - min : 0;
+            }
+            weights[i] = weight;
+            total += weight;
+        }
+        if (!(total > 0 && total < Double.POSITIVE_INFINITY)) {
+            for (int i = 0; i < n; i++) {
+                weights[i] = 1;
+            }
+            total = n;
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,30 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+// Picks one parent from the population. Implementations draw a slot index and only
+// look at the fitness keys, select() resolves the index to the individual.
+@FunctionalInterface
+public interface Selection<G extends Genome> {
+
+    int selectIndex(Population<G> population, RandomGenerator random);
+
+    default Individual<G> select(Population<G> population, RandomGenerator random) {
+        return population.get(selectIndex(population, random));
+    }
+
+    // Same, as draw number draw of the generation (0 is the first after prepare()). The
+    // engine numbers the draws of each breeding slice on from the draws of the slices
+    // before it, so selections that hand out a prepared pool in order do not depend on
+    // thread timing.
+    default int selectIndex(Population<G> population, RandomGenerator random, int draw) {
+        return selectIndex(population, random);
+    }
+
+    // Called by the engine on its own thread before the parents of a generation are
+    // drawn, for selections that build tables over the population. The draws that
+    // follow may come from several threads at once.
+    default void prepare(Population<G> population, RandomGenerator random) {
+    }
+
+}
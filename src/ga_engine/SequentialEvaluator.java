@@ -0,0 +1,17 @@
+package ga_engine;
+
+import java.util.List;
+
+// Scores individuals one after another on the calling thread
+public class SequentialEvaluator<G extends Genome> implements Evaluator<G> {
+
+    @Override
+    public int evaluate(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction) {
+        for (int i = 0; i < batch.size(); i++) {
+            Individual<G> individual = batch.get(i);
+            individual.setFitness(fitnessFunction.evaluate(individual.getGenome()));
+        }
+        return batch.size();
+    }
+
+}
@@ -0,0 +1,186 @@
+package ga_engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
+
+// Two fixed-size slots in one memory-mapped file, written in turns. The engine thread
+// copies its state into a slot (plain memory writes); a background thread forces the
+// slot to disk and only then stamps its sequence number, so a process crash
+// mid-checkpoint leaves the other slot as the latest complete snapshot. Power loss is
+// not covered: the slot being overwritten is only invalidated in memory, the OS may
+// write its new pages back before its zeroed sequence number, and the other slot may
+// still be waiting for its own flush.
+//
+// Slot layout, little-endian: a HEADER_BYTES header (magic, sequence, layout,
+// population size, record width, generation, evaluations, RNG seed and gamma)
+// followed by the body the checkpoint class defines.
+final class SnapshotFile implements Closeable {
+
+    static final int HEADER_BYTES = 64;
+
+    private static final long MAGIC = 0x313050414e534147L; // "GASNAP01"
+    private static final int SEQUENCE = 8;
+    private static final int LAYOUT = 16;
+    private static final int POPULATION = 20;
+    private static final int RECORD = 24;
+    private static final int GENERATION = 28;
+    private static final int EVALUATIONS = 32;
+    private static final int SEED = 40;
+    private static final int GAMMA = 48;
+
+    private final int layout;
+    private final int populationSize;
+    private final int recordBytes;
+    private final int bodyBytes;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] slots = new MappedByteBuffer[2];
+    private final AtomicBoolean[] flushing = {new AtomicBoolean(), new AtomicBoolean()};
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Throwable failure;
+
+    private long sequence;
+    private int next;
+    private int current = -1;
+
+    SnapshotFile(Path file, int layout, int populationSize, int recordBytes, long bodyBytes) throws IOException {
+        if (HEADER_BYTES + bodyBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("snapshot of " + bodyBytes + " bytes does not fit a mapping");
+        }
+        this.layout = layout;
+        this.populationSize = populationSize;
+        this.recordBytes = recordBytes;
+        this.bodyBytes = (int) bodyBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long slotBytes = HEADER_BYTES + bodyBytes;
+        for (int slot = 0; slot < 2; slot++) {
+            slots[slot] = channel.map(FileChannel.MapMode.READ_WRITE, slot * slotBytes, slotBytes);
+            slots[slot].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        // Carry on numbering after whatever an earlier run left behind
+        int latest = latest();
+        if (latest >= 0) {
+            sequence = slots[latest].getLong(SEQUENCE);
+            next = 1 - latest;
+        }
+    }
+
+    // Slot of the newest complete snapshot that matches this layout, -1 if there is none
+    int latest() {
+        int latest = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            MappedByteBuffer header = slots[slot];
+            if (header.getLong(0) == MAGIC && header.getLong(SEQUENCE) > 0 && header.getInt(LAYOUT) == layout
+                    && header.getInt(POPULATION) == populationSize && header.getInt(RECORD) == recordBytes
+                    && (latest < 0 || header.getLong(SEQUENCE) > slots[latest].getLong(SEQUENCE))) {
+                latest = slot;
+            }
+        }
+        return latest;
+    }
+
+    int generation(int slot) {
+        return slots[slot].getInt(GENERATION);
+    }
+
+    long evaluations(int slot) {
+        return slots[slot].getLong(EVALUATIONS);
+    }
+
+    SplitMixRandom random(int slot) {
+        return new SplitMixRandom(slots[slot].getLong(SEED), slots[slot].getLong(GAMMA));
+    }
+
+    // The body of a slot as a little-endian view on the mapping, nothing is copied
+    ByteBuffer body(int slot) {
+        return slots[slot].slice(HEADER_BYTES, bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Engine thread: claim the next slot for a new snapshot and return its body, null
+    // while that slot is still being flushed
+    ByteBuffer begin(int generation, long evaluations, SplitMixRandom random) throws IOException {
+        if (failure != null) {
+            throw new IOException("checkpoint write failed", failure);
+        }
+        if (flushing[next].get()) {
+            return null;
+        }
+        current = next;
+        MappedByteBuffer header = slots[current];
+        header.putLong(SEQUENCE, 0);
+        header.putLong(0, MAGIC);
+        header.putInt(LAYOUT, layout);
+        header.putInt(POPULATION, populationSize);
+        header.putInt(RECORD, recordBytes);
+        header.putInt(GENERATION, generation);
+        header.putLong(EVALUATIONS, evaluations);
+        header.putLong(SEED, random.getSeed());
+        header.putLong(GAMMA, random.getGamma());
+        return body(current);
+    }
+
+    // Engine thread: the body is filled, flush it and seal the slot in the background
+    void commit() {
+        int slot = current;
+        long stamp = ++sequence;
+        flushing[slot].set(true);
+        next = 1 - slot;
+        writer.execute(() -> {
+            try {
+                MappedByteBuffer mapping = slots[slot];
+                mapping.force();
+                mapping.putLong(SEQUENCE, stamp);
+                mapping.force(0, HEADER_BYTES);
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                flushing[slot].set(false);
+            }
+        });
+    }
+
+    // Checkpoints store the RNG state, so only a SplitMixRandom will do
+    static SplitMixRandom splitMix(RandomGenerator random) {
+        if (random instanceof SplitMixRandom splitMix) {
+            return splitMix;
+        }
+        throw new IllegalStateException("checkpoints need a SplitMixRandom, not " + random.getClass().getName());
+    }
+
+    // Waits for the checkpoints still being flushed
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        boolean interrupted = false;
+        while (!writer.isTerminated()) {
+            try {
+                writer.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw new IOException("checkpoint write failed", failure);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package ga_engine;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The SplitMix64 generator of SplittableRandom, draw for draw the same numbers, but its
+ * whole state (seed and gamma) can be read and restored, so checkpoints can continue a
+ * run exactly where it stopped.
+ */
+public class SplitMixRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long seed;
+    private long gamma;
+
+    // Same stream as new SplittableRandom(seed)
+    public SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    // Randomly seeded
+    public SplitMixRandom() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    // Restore a saved state, gamma must be odd
+    public SplitMixRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGamma() {
+        return gamma;
+    }
+
+    // Independent stream, same as SplittableRandom.split()
+    public SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    // Turn this object into a fresh stream from two draws of another generator,
+    // like split() but without allocating
+    void reseed(long seed, long gammaSeed) {
+        this.seed = seed;
+        this.gamma = mixGamma(gammaSeed);
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    // Odd gamma with enough bit transitions, as in SplittableRandom
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+}
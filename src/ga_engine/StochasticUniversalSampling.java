@@ -0,0 +1,78 @@
+package ga_engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Stochastic universal sampling: prepare() lays N equally spaced pointers with one
+ * random offset over the fitness wheel (same weights as RouletteSelection), so every
+ * individual gets its expected number of mating slots give or take one, without the
+ * spread of N independent roulette spins. The mating pool is shuffled so neighbouring
+ * slots do not pair up, and draws hand out the pool in order, O(1) each, wrapping
+ * around if a generation needs more than N parents.
+ *
+ * Engine draws are numbered, draw k gets slot k of the pool, so breeding slices read
+ * their own part of it and the run does not depend on thread timing. Draws without a
+ * number share a cursor instead.
+ */
+public class StochasticUniversalSampling<G extends Genome> implements Selection<G> {
+
+    private double[] weights = new double[0];
+    private int[] pool = new int[0];
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Override
+    public void prepare(Population<G> population, RandomGenerator random) {
+        int n = population.size();
+        if (pool.length != n) {
+            weights = new double[n];
+            pool = new int[n];
+        }
+        double total = RouletteSelection.weigh(population, weights);
+
+        // One spin places all N pointers
+        double step = total / n;
+        double pointer = random.nextDouble() * step;
+        double cumulative = 0;
+        int count = 0;
+        int last = 0;
+        for (int i = 0; i < n && count < n; i++) {
+            if (weights[i] == 0) {
+                continue;
+            }
+            last = i;
+            cumulative += weights[i];
+            while (count < n && pointer < cumulative) {
+                pool[count++] = i;
+                pointer += step;
+            }
+        }
+        // Rounding can leave the last pointer just past the end of the wheel
+        while (count < n) {
+            pool[count++] = last;
+        }
+
+        // Fisher-Yates shuffle
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int slot = pool[i];
+            pool[i] = pool[j];
+            pool[j] = slot;
+        }
+        cursor.set(0);
+    }
+
+    @Override
+    public int selectIndex(Population<G> population, RandomGenerator random) {
+        return selectIndex(population, random, cursor.getAndIncrement());
+    }
+
+    @Override
+    public int selectIndex(Population<G> population, RandomGenerator random, int draw) {
+        if (pool.length != population.size()) {
+            throw new IllegalStateException("prepare() has not been called for this population");
+        }
+        return pool[Integer.remainderUnsigned(draw, pool.length)];
+    }
+
+}
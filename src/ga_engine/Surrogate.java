@@ -0,0 +1,195 @@
+package ga_engine;
+
+/**
+ * Online k-nearest-neighbour model of an expensive fitness function, for pre-screening
+ * children. Every real evaluation is added to an archive (genes scaled to [0, 1] by the
+ * gene ranges, kd-tree indexed), a prediction is the inverse-distance weighted mean of
+ * the k nearest archived fitness values.
+ *
+ * Once the archive holds a few samples per neighbour, a batch of children is ranked by
+ * prediction and only the best exactFraction of it (at least one child) gets a real
+ * evaluation. The others keep their prediction, capped at the lowest real fitness of
+ * their batch so a guess never outranks a measured child. Accuracy is tracked on the
+ * children that were both predicted and evaluated.
+ *
+ * getSaved() tells how many fitness calls the model replaced. Used from the engine
+ * thread only.
+ */
+public class Surrogate {
+
+    // Samples per neighbour before the model is trusted
+    private static final int WARMUP = 4;
+
+    private final double[] min;
+    private final double[] scale;
+    private final int neighbours;
+    private final double exactFraction;
+    private final NeighbourIndex index;
+
+    private final double[] point;
+    private final int[] found;
+    private final double[] distances;
+
+    private long exact;
+    private long saved;
+    // Predicted vs real fitness of the exact evaluations after warm-up
+    private long compared;
+    private double absoluteError;
+    private double sumPredicted;
+    private double sumActual;
+    private double sumPredicted2;
+    private double sumActual2;
+    private double sumProduct;
+
+    public Surrogate(double[] min, double[] max, int neighbours, int capacity, double exactFraction) {
+        if (neighbours < 1 || capacity < WARMUP * neighbours) {
+            throw new IllegalArgumentException("need neighbours >= 1 and capacity >= " + WARMUP + " * neighbours");
+        }
+        if (!(exactFraction > 0 && exactFraction <= 1)) {
+            throw new IllegalArgumentException("exactFraction must be in (0, 1]: " + exactFraction);
+        }
+        this.min = min.clone();
+        this.scale = new double[min.length];
+        for (int d = 0; d < min.length; d++) {
+            scale[d] = max[d] > min[d] ? 1 / (max[d] - min[d]) : 1;
+        }
+        this.neighbours = neighbours;
+        this.exactFraction = exactFraction;
+        this.index = new NeighbourIndex(min.length, capacity);
+        this.point = new double[min.length];
+        this.found = new int[neighbours];
+        this.distances = new double[neighbours];
+    }
+
+    public int dimensions() {
+        return min.length;
+    }
+
+    public int getSamples() {
+        return index.size();
+    }
+
+    public boolean isTrained() {
+        return index.size() >= WARMUP * neighbours;
+    }
+
+    // Real fitness calls since the model was created
+    public long getExactEvaluations() {
+        return exact;
+    }
+
+    // Fitness calls replaced by a prediction
+    public long getSaved() {
+        return saved;
+    }
+
+    public double getMeanAbsoluteError() {
+        return compared == 0 ? Double.NaN : absoluteError / compared;
+    }
+
+    // Pearson correlation of predicted and real fitness, the ranking is what the screen relies on
+    public double getCorrelation() {
+        double n = compared;
+        double covariance = n * sumProduct - sumPredicted * sumActual;
+        double spread = Math.sqrt(n * sumPredicted2 - sumPredicted * sumPredicted)
+                * Math.sqrt(n * sumActual2 - sumActual * sumActual);
+        return spread > 0 ? covariance / spread : Double.NaN;
+    }
+
+    public double predict(double[] genes) {
+        scale(genes);
+        int count = index.nearest(point, neighbours, found, distances);
+        double weights = 0;
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            if (distances[i] == 0) {
+                return index.value(found[i]);
+            }
+            double weight = 1 / distances[i];
+            weights += weight;
+            sum += weight * index.value(found[i]);
+        }
+        return count == 0 ? Double.NaN : sum / weights;
+    }
+
+    // Archive a real evaluation
+    public void learn(double[] genes, double fitness) {
+        exact++;
+        if (Double.isFinite(fitness)) {
+            scale(genes);
+            index.add(point, fitness);
+        }
+    }
+
+    // Compare a prediction with the real fitness it stood in for
+    public void compare(double predicted, double actual) {
+        if (!Double.isFinite(predicted) || !Double.isFinite(actual)) {
+            return;
+        }
+        compared++;
+        absoluteError += Math.abs(predicted - actual);
+        sumPredicted += predicted;
+        sumActual += actual;
+        sumPredicted2 += predicted * predicted;
+        sumActual2 += actual * actual;
+        sumProduct += predicted * actual;
+    }
+
+    // Rank n predicted children and move the ones that deserve a real evaluation to
+    // the front of order, returns how many they are. Everything behind counts as saved.
+    public int screen(double[] predictions, int n, int[] order) {
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int count = Math.max(1, (int) Math.ceil(exactFraction * n));
+        if (count < n) {
+            selectTop(predictions, order, 0, n - 1, count - 1);
+        }
+        saved += n - count;
+        return count;
+    }
+
+    // Quickselect on predictions, descending: order[0..target] end up the best
+    private static void selectTop(double[] predictions, int[] order, int left, int right, int target) {
+        while (left < right) {
+            double pivot = predictions[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (predictions[order[i]] > pivot) {
+                    i++;
+                }
+                while (predictions[order[j]] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void scale(double[] genes) {
+        for (int d = 0; d < point.length; d++) {
+            point[d] = (genes[d] - min[d]) * scale[d];
+        }
+    }
+
+    @Override
+    public String toString() {
+        long total = exact + saved;
+        return "samples: " + getSamples() + ", exact: " + exact + ", saved: " + saved
+                + (total == 0 ? "" : " (" + Math.round(1000.0 * saved / total) / 10.0 + "%)")
+                + ", mean abs error: " + getMeanAbsoluteError() + ", correlation: " + getCorrelation();
+    }
+
+}
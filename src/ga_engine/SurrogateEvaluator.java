@@ -0,0 +1,87 @@
+package ga_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Pre-screens every batch with a Surrogate: the whole batch is predicted, only the
+// most promising children go through the wrapped evaluator and teach the model, the
+// rest keep their (capped) prediction. Batches are scored exactly until the model is
+// trained, the initial population included. Breeding slices score their children
+// without the evaluator, so the engine has to breed in one slice.
+public class SurrogateEvaluator<G extends Genome> implements Evaluator<G> {
+
+    private final Evaluator<G> evaluator;
+    private final Surrogate surrogate;
+    private final GenomeFeatures<G> features;
+
+    // Scratch buffers reused for every batch
+    private final List<Individual<G>> exact = new ArrayList<>();
+    private double[] points = new double[0];
+    private double[] predictions = new double[0];
+    private int[] order = new int[0];
+    private final double[] genes;
+
+    public SurrogateEvaluator(Evaluator<G> evaluator, Surrogate surrogate, GenomeFeatures<G> features) {
+        this.evaluator = evaluator;
+        this.surrogate = surrogate;
+        this.features = features;
+        this.genes = new double[surrogate.dimensions()];
+    }
+
+    public Surrogate getSurrogate() {
+        return surrogate;
+    }
+
+    @Override
+    public int evaluate(List<Individual<G>> batch, FitnessFunction<G> fitnessFunction) {
+        int n = batch.size();
+        int dimensions = genes.length;
+        if (order.length < n) {
+            points = new double[n * dimensions];
+            predictions = new double[n];
+            order = new int[n];
+        }
+        boolean trained = surrogate.isTrained();
+        for (int i = 0; i < n; i++) {
+            features.extract(batch.get(i).getGenome(), genes);
+            System.arraycopy(genes, 0, points, i * dimensions, dimensions);
+            predictions[i] = trained ? surrogate.predict(genes) : Double.NaN;
+        }
+
+        // Real evaluation for the chosen ones
+        int count = n;
+        if (trained) {
+            count = surrogate.screen(predictions, n, order);
+        } else {
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+        }
+        exact.clear();
+        for (int i = 0; i < count; i++) {
+            exact.add(batch.get(order[i]));
+        }
+        int evaluations = evaluator.evaluate(exact, fitnessFunction);
+        exact.clear();
+
+        double floor = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int child = order[i];
+            double fitness = batch.get(child).getFitness();
+            if (trained) {
+                surrogate.compare(predictions[child], fitness);
+            }
+            System.arraycopy(points, child * dimensions, genes, 0, dimensions);
+            surrogate.learn(genes, fitness);
+            floor = Math.min(floor, fitness);
+        }
+
+        // The rest are only predicted
+        for (int i = count; i < n; i++) {
+            int child = order[i];
+            batch.get(child).setFitness(Math.min(predictions[child], floor));
+        }
+        return evaluations;
+    }
+
+}
@@ -0,0 +1,83 @@
+package ga_engine;
+
+import java.time.Duration;
+
+/**
+ * Stopping criterion for GeneticEngine.run(Termination) and FlatDoubleEngine.run(Termination).
+ * It is asked between generations with the statistics of the current population.
+ * Criteria combine with and() / or(), e.g.
+ *
+ *     Termination.generations(1000).or(Termination.stagnation(50, 1e-6))
+ *
+ * Stagnation and wall-clock criteria keep state, so build a new criterion for every run.
+ */
+@FunctionalInterface
+public interface Termination {
+
+    boolean isDone(GenerationMetrics metrics);
+
+    // Done only when both are done. Both are always asked, so stateful criteria see every check.
+    default Termination and(Termination other) {
+        return metrics -> isDone(metrics) & other.isDone(metrics);
+    }
+
+    // Done when either is done
+    default Termination or(Termination other) {
+        return metrics -> isDone(metrics) | other.isDone(metrics);
+    }
+
+    // A fixed number of generations
+    static Termination generations(int generations) {
+        return metrics -> metrics.getGeneration() >= generations;
+    }
+
+    // At most this many fitness function calls (checked between generations)
+    static Termination evaluations(long evaluations) {
+        return metrics -> metrics.getEvaluations() >= evaluations;
+    }
+
+    // The best fitness has reached target
+    static Termination fitnessTarget(double target) {
+        return metrics -> metrics.getBest() >= target;
+    }
+
+    // The population has converged: the standard deviation of its fitness fell below threshold
+    static Termination diversityBelow(double threshold) {
+        return metrics -> metrics.getDiversity() < threshold;
+    }
+
+    // The best fitness has not improved by more than epsilon for window generations
+    static Termination stagnation(int window, double epsilon) {
+        return new Termination() {
+            private double best = Double.NEGATIVE_INFINITY;
+            private int improved;
+
+            @Override
+            public boolean isDone(GenerationMetrics metrics) {
+                if (metrics.getBest() > best + epsilon) {
+                    best = metrics.getBest();
+                    improved = metrics.getGeneration();
+                    return false;
+                }
+                return metrics.getGeneration() - improved >= window;
+            }
+        };
+    }
+
+    // Wall-clock budget, counted from the first check
+    static Termination wallClock(Duration budget) {
+        return new Termination() {
+            private long start = -1;
+
+            @Override
+            public boolean isDone(GenerationMetrics metrics) {
+                long now = System.nanoTime();
+                if (start < 0) {
+                    start = now;
+                }
+                return now - start >= budget.toNanos();
+            }
+        };
+    }
+
+}
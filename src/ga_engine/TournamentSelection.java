@@ -0,0 +1,47 @@
+package ga_engine;
+
+import java.util.random.RandomGenerator;
+
+// Tournament selection
+// Choose size random slots from the whole population and keep the fittest one.
+// Works on indices and fitness keys only, nothing is allocated per draw.
+public class TournamentSelection<G extends Genome> implements Selection<G> {
+
+    private final int size;
+
+    public TournamentSelection(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+    }
+
+    @Override
+    public int selectIndex(Population<G> population, RandomGenerator random) {
+        int n = population.size();
+        int best = random.nextInt(n);
+        double bestFitness = population.getFitness(best);
+        for (int i = 1; i < size; i++) {
+            int index = random.nextInt(n);
+            double fitness = population.getFitness(index);
+            if (fitness > bestFitness) {
+                best = index;
+                bestFitness = fitness;
+            }
+        }
+        return best;
+    }
+
+    // Same tournament over the first n entries of a fitness column, for flat populations
+    public static int select(double[] fitness, int n, int size, RandomGenerator random) {
+        int best = random.nextInt(n);
+        for (int i = 1; i < size; i++) {
+            int index = random.nextInt(n);
+            if (fitness[index] > fitness[best]) {
+                best = index;
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,96 @@
+package ga_engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams a trace file written by TraceWriter back one generation at a time, in either
+ * format, so histories of millions of generations never have to fit in memory. Close
+ * the stream (try-with-resources) to close the file.
+ */
+public final class TraceReader {
+
+    private TraceReader() {
+    }
+
+    public static Stream<TraceRecord> stream(Path file) throws IOException {
+        if (!isBinary(file)) {
+            return Files.lines(file, StandardCharsets.US_ASCII).skip(1).map(TraceRecord::parse);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(TraceWriter.MAGIC.length);
+        return StreamSupport.stream(new BinarySpliterator(channel), false).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static boolean isBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(TraceWriter.MAGIC.length);
+            while (magic.hasRemaining()) {
+                if (channel.read(magic) < 0) {
+                    return false;
+                }
+            }
+            return Arrays.equals(magic.array(), TraceWriter.MAGIC);
+        }
+    }
+
+    // Reads whole blocks of fixed-width records and hands them out one by one
+    private static final class BinarySpliterator extends Spliterators.AbstractSpliterator<TraceRecord> {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * TraceWriter.RECORD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private boolean eof;
+
+        BinarySpliterator(FileChannel channel) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TraceRecord> action) {
+            if (buffer.remaining() < TraceWriter.RECORD_BYTES && !fill()) {
+                return false;
+            }
+            action.accept(new TraceRecord((int) buffer.getLong(), buffer.getLong(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+            return true;
+        }
+
+        // Top the buffer up, false once no complete record is left
+        private boolean fill() {
+            buffer.compact();
+            try {
+                while (!eof && buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        eof = true;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.flip();
+            return buffer.remaining() >= TraceWriter.RECORD_BYTES;
+        }
+    }
+
+}
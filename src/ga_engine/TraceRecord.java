@@ -0,0 +1,63 @@
+package ga_engine;
+
+/**
+ * One generation of a trace file, see TraceWriter and TraceReader.
+ */
+public class TraceRecord {
+
+    static final String CSV_HEADER = "generation,evaluations,best,mean,worst,diversity";
+
+    private final int generation;
+    private final long evaluations;
+    private final double best;
+    private final double mean;
+    private final double worst;
+    private final double diversity;
+
+    public TraceRecord(int generation, long evaluations, double best, double mean, double worst, double diversity) {
+        this.generation = generation;
+        this.evaluations = evaluations;
+        this.best = best;
+        this.mean = mean;
+        this.worst = worst;
+        this.diversity = diversity;
+    }
+
+    // Get methods
+    public int getGeneration() {
+        return generation;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public double getBest() {
+        return best;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getWorst() {
+        return worst;
+    }
+
+    public double getDiversity() {
+        return diversity;
+    }
+
+    static TraceRecord parse(String line) {
+        String[] fields = line.split(",");
+        return new TraceRecord(Integer.parseInt(fields[0]), Long.parseLong(fields[1]), Double.parseDouble(fields[2]),
+                Double.parseDouble(fields[3]), Double.parseDouble(fields[4]), Double.parseDouble(fields[5]));
+    }
+
+    // Same line as in a CSV trace
+    @Override
+    public String toString() {
+        return generation + "," + evaluations + "," + best + "," + mean + "," + worst + "," + diversity;
+    }
+
+}
@@ -0,0 +1,193 @@
+package ga_engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the convergence history of one engine to a file without slowing the engine
+ * down. onGeneration only copies the metrics into a preallocated ring buffer; a
+ * background thread drains the ring in batches and writes them through a FileChannel.
+ * If the ring is full the generation is dropped and counted instead of waiting, so use
+ * a bigger capacity or a sample interval when getDropped() is not zero.
+ *
+ * The ring has a single producer: give every engine (island) its own writer.
+ * TraceReader streams both formats back.
+ */
+public class TraceWriter implements GenerationListener, Closeable {
+
+    public enum Format {
+        // One "generation,evaluations,best,mean,worst,diversity" line per generation
+        CSV,
+        // MAGIC, then six little-endian 8-byte fields per generation in the CSV order
+        BINARY
+    }
+
+    static final byte[] MAGIC = "GATRACE1".getBytes(StandardCharsets.US_ASCII);
+    static final int RECORD_BYTES = 6 * Long.BYTES;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int MAX_LINE = 160;
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final FileChannel channel;
+    private final Format format;
+
+    // The ring, one array per field
+    private final int mask;
+    private final int[] generation;
+    private final long[] evaluations;
+    private final double[] best;
+    private final double[] mean;
+    private final double[] worst;
+    private final double[] diversity;
+    // next slot the engine writes / the writer thread reads
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long dropped;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final StringBuilder line = new StringBuilder(MAX_LINE);
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public TraceWriter(Path file, Format format) throws IOException {
+        this(file, format, 1 << 16);
+    }
+
+    // capacity is rounded up to a power of two
+    public TraceWriter(Path file, Format format, int capacity) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = size - 1;
+        this.generation = new int[size];
+        this.evaluations = new long[size];
+        this.best = new double[size];
+        this.mean = new double[size];
+        this.worst = new double[size];
+        this.diversity = new double[size];
+        this.format = format;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        if (format == Format.BINARY) {
+            buffer.put(MAGIC);
+        } else {
+            putAscii(TraceRecord.CSV_HEADER + "\n");
+        }
+        this.thread = new Thread(this::drain, "trace-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Generations lost because the ring was full
+    public long getDropped() {
+        return dropped;
+    }
+
+    @Override
+    public void onGeneration(GenerationMetrics metrics) {
+        long h = head.get();
+        if (h - tail.get() > mask) {
+            dropped++;
+            return;
+        }
+        int slot = (int) h & mask;
+        generation[slot] = metrics.getGeneration();
+        evaluations[slot] = metrics.getEvaluations();
+        best[slot] = metrics.getBest();
+        mean[slot] = metrics.getMean();
+        worst[slot] = metrics.getWorst();
+        diversity[slot] = metrics.getDiversity();
+        head.lazySet(h + 1);
+    }
+
+    // Writes everything still in the ring and closes the file
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Writer thread: copy whatever the engine has published, then sleep a little
+    private void drain() {
+        try {
+            long t = tail.get();
+            while (true) {
+                boolean done = closed;
+                long h = head.get();
+                if (t == h) {
+                    if (done) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                for (; t < h; t++) {
+                    if (buffer.remaining() < MAX_LINE) {
+                        flush();
+                    }
+                    encode((int) t & mask);
+                }
+                tail.lazySet(t);
+                flush();
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void encode(int slot) {
+        if (format == Format.BINARY) {
+            buffer.putLong(generation[slot]);
+            buffer.putLong(evaluations[slot]);
+            buffer.putDouble(best[slot]);
+            buffer.putDouble(mean[slot]);
+            buffer.putDouble(worst[slot]);
+            buffer.putDouble(diversity[slot]);
+            return;
+        }
+        line.setLength(0);
+        line.append(generation[slot]).append(',').append(evaluations[slot]).append(',').append(best[slot])
+                .append(',').append(mean[slot]).append(',').append(worst[slot]).append(',').append(diversity[slot])
+                .append('\n');
+        putAscii(line);
+    }
+
+    private void putAscii(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
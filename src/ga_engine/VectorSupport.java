@@ -0,0 +1,27 @@
+package ga_engine;
+
+import java.util.function.Supplier;
+
+// Tells whether the incubating Vector API can be used. The module is optional
+// (requires static): it is only there when the JVM was started with
+// --add-modules jdk.incubator.vector, otherwise problems fall back to their scalar
+// kernels. -Dga.vector=false forces the scalar kernels.
+public final class VectorSupport {
+
+    private static final boolean AVAILABLE = !"false".equals(System.getProperty("ga.vector"))
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorSupport() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    // Pick the SIMD kernel when the Vector API is there. The vector kernel is only
+    // created (and its class only loaded) in that case.
+    public static DoubleFitness select(Supplier<DoubleFitness> vector, DoubleFitness scalar) {
+        return AVAILABLE ? vector.get() : scalar;
+    }
+
+}
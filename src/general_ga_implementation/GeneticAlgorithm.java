@@ -1,158 +1,126 @@
-package general_ga_implementation;
-import java.util.Random;
-
-public class GeneticAlgorithm {
-    
-    private static final int POPULATION_SIZE = 10;
-    private static final int MAX_GENERATIONS = 1000;
-    
-    public static void main(String[] args) {
-        
-        // Initialize population
-        Population population = new Population(POPULATION_SIZE);
-        
-        // Evaluate initial fitness
-        population.evaluate();
-        
-        int generation = 1;
-        
-        // Evolution loop
-        while (generation <= MAX_GENERATIONS) {
-            
-            // Print current generation
-            System.out.println("Generation: " + generation);
-            
-            // Select parents
-            Chromosome parent1 = population.select();
-            Chromosome parent2 = population.select();
-            
-            // Crossover
-            Chromosome child = parent1.crossover(parent2);
-            
-            // Replace worst individual with child
-            population.replaceWorst(child);
-            
-            // Evaluate new fitness
-            population.evaluate();
-            
-            // Print best fitness
-            System.out.println("Best fitness: " + population.getBestFitness());
-            
-            generation++;
-        }
-    }
-    
-}
-
-class Chromosome {
-    
-    private int[] genes;
-    private double fitness;
-    private Random random;
-    
-    public Chromosome(int[] genes) {
-        this.genes = genes;
-        this.random = new Random();
-    }
-    
-    public int[] getGenes() {
-        return genes;
-    }
-    
-    public double getFitness() {
-        return fitness;
-    }
-    
-    public void setFitness(double fitness) {
-        this.fitness = fitness;
-    }
-    
-    public Chromosome crossover(Chromosome other) {
-        int[] childGenes = new int[genes.length];
-        int midpoint = random.nextInt(genes.length);
-        for (int i = 0; i < midpoint; i++) {
-            childGenes[i] = genes[i];
-        }
-        for (int i = midpoint; i<genes.length; i++) {
-        	childGenes[i] = other.genes[i];
-        }
-        return new Chromosome(childGenes);
-    }
-    
-}
-
-class Population {
-    
-    private Chromosome[] individuals;
-    private Random random;
-    
-    public Population(int size) {
-        individuals = new Chromosome[size];
-        random = new Random();
-        for (int i = 0; i < size; i++) {
-            int[] genes = new int[10];
-            for (int j = 0; j < genes.length; j++) {
-                genes[j] = random.nextInt(2);
-            }
-            individuals[i] = new Chromosome(genes);
-        }
-    }
-    
-    public void evaluate() {
-        double bestFitness = Double.MIN_VALUE;
-        for (Chromosome individual : individuals) {
-            double fitness = evaluate(individual);
-            individual.setFitness(fitness);
-            if (fitness > bestFitness) {
-                bestFitness = fitness;
-            }
-        }
-    }
-    
-    private double evaluate(Chromosome individual) {
-        // This implementation simply returns the sum of the genes
-        int[] genes = individual.getGenes();
-        double sum = 0;
-        for (int gene : genes) {
-            sum += gene;
-        }
-        return sum;
-    }
-    
-    public Chromosome select() {
-        // Tournament selection
-    	
-    	// Choose five random individuals and choose the best one of them
-        Chromosome best = null;
-        for (int i = 0; i < 5; i++) {
-            Chromosome individual = individuals[random.nextInt(individuals.length)];
-            if (best == null || individual.getFitness() > best.getFitness()) {
-                best = individual;
-            }
-        }
-        return best;
-    }
-    
-    public void replaceWorst(Chromosome child) {
-        int worstIndex = 0;
-        double worstFitness = Double.MAX_VALUE;
-        for (int i = 0; i < individuals.length; i++) {
-            if (individuals[i].getFitness() < worstFitness) {
-                worstIndex = i;
-                worstFitness = individuals[i].getFitness();
-            }
-        }
-        individuals[worstIndex] = child;
-    }
-    
-    public double getBestFitness() {
-        double bestFitness = Double.MIN_VALUE;
-        for (Chromosome individual : individuals) {
-            if (individual.getFitness() > bestFitness) {
-                bestFitness = individual.getFitness();
-            }
-        }
-        return bestFitness;
-    }
-    
-}
+package general_ga_implementation;
+import java.util.random.RandomGenerator;
+
+import ga_engine.FitnessFunction;
+import ga_engine.GeneticEngine;
+import ga_engine.Genome;
+import ga_engine.ReplaceWorst;
+import ga_engine.Termination;
+import ga_engine.TournamentSelection;
+
+public class GeneticAlgorithm {
+    
+    private static final int POPULATION_SIZE = 10;
+    private static final int MAX_GENERATIONS = 1000;
+    private static final int CHROMOSOME_LENGTH = 10;
+    private static final int PRINT_INTERVAL = 1;
+    
+    public static void main(String[] args) {
+        
+        GeneticEngine<Chromosome> ga = newEngine(POPULATION_SIZE, CHROMOSOME_LENGTH);
+        
+        // Print the best fitness every PRINT_INTERVAL generations, the statistics are only
+        // collected for the generations that are printed
+        ga.setListener(metrics -> {
+            System.out.println("Generation: " + metrics.getGeneration());
+            System.out.println("Best fitness: " + metrics.getBest());
+        }, PRINT_INTERVAL);
+        
+        // Evaluate initial fitness
+        ga.initialize();
+        
+        // Evolution loop: select parents, crossover, replace worst individual with child, evaluate new fitness.
+        // Stop at MAX_GENERATIONS, or as soon as a chromosome has all bits set
+        ga.run(Termination.generations(MAX_GENERATIONS).or(Termination.fitnessTarget(CHROMOSOME_LENGTH)));
+    }
+    
+    // Initialize population: tournament of 5, one child replaces the worst individual
+    static GeneticEngine<Chromosome> newEngine(int populationSize, int length) {
+        GeneticEngine<Chromosome> ga = new GeneticEngine<>(populationSize,
+                random -> Chromosome.random(length, random),
+                new OneMax(),
+                new TournamentSelection<>(5),
+                Chromosome::crossover,
+                new ReplaceWorst<>(1));
+        // Recycle the evicted chromosome as the next child
+        ga.setPooling(true);
+        return ga;
+    }
+    
+}
+
+// Bitstring packed 64 genes per long, bit i lives in word i / 64 at position i % 64.
+// Bits past length in the last word are always 0.
+class Chromosome implements Genome {
+    
+    private final long[] words;
+    private final int length;
+    
+    public Chromosome(long[] words, int length) {
+        this.words = words;
+        this.length = length;
+    }
+    
+    public static Chromosome random(int length, RandomGenerator random) {
+        long[] words = new long[(length + 63) >>> 6];
+        for (int j = 0; j < words.length; j++) {
+            words[j] = random.nextLong();
+        }
+        if ((length & 63) != 0) {
+            words[words.length - 1] &= (1L << length) - 1;
+        }
+        return new Chromosome(words, length);
+    }
+    
+    public int get(int index) {
+        return (int) (words[index >>> 6] >>> index) & 1;
+    }
+    
+    public long[] getWords() {
+        return words;
+    }
+    
+    // Number of genes that are 1
+    public int bitCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    @Override
+    public int length() {
+        return length;
+    }
+    
+    @Override
+    public Chromosome copy() {
+        return new Chromosome(words.clone(), length);
+    }
+    
+    // One-point crossover: genes before midpoint from parent1, the rest from parent2.
+    // Whole words are copied, only the word holding the midpoint is masked.
+    public static int crossover(Chromosome parent1, Chromosome parent2, Chromosome child, Chromosome unused,
+            RandomGenerator random) {
+        long[] childWords = child.words;
+        int midpoint = random.nextInt(parent1.length);
+        int word = midpoint >>> 6;
+        long mask = (1L << midpoint) - 1;
+        System.arraycopy(parent1.words, 0, childWords, 0, word);
+        childWords[word] = (parent1.words[word] & mask) | (parent2.words[word] & ~mask);
+        System.arraycopy(parent2.words, word + 1, childWords, word + 1, childWords.length - word - 1);
+        return 1;
+    }
+    
+}
+
+class OneMax implements FitnessFunction<Chromosome> {
+    
+    @Override
+    public double evaluate(Chromosome individual) {
+        // Number of genes that are 1, counted a word at a time
+        return individual.bitCount();
+    }
+    
+}
@@ -1,10 +1,15 @@
-/**
- * 
- */
-/**
- * @author Zdenek Snajdr
- *
- */
-module Optimization {
-	requires jdk.compiler;
-}
\ No newline at end of file
+/**
+ * 
+ */
+/**
+ * @author Zdenek Snajdr
+ *
+ */
+module Optimization {
+	requires jdk.compiler;
+	// Generation metrics: allocation per thread and flight recorder events
+	requires jdk.management;
+	requires jdk.jfr;
+	// Optional SIMD fitness kernels, see ga_engine.VectorSupport
+	requires static jdk.incubator.vector;
+}
@@ -0,0 +1,26 @@
+package resource_allocation;
+
+// Repair operator for the resource budget
+final class Budget {
+	
+	private Budget() {
+	}
+	
+	// Scale an over-budget allocation down proportionally so it sums to at most limit,
+	// in one pass. Returns the number of units removed, 0 if it was already within budget.
+	static int repair(int[] resources, int limit) {
+		long total = 0;
+		for (int amount : resources) {
+			total += amount;
+		}
+		if (total <= limit) {
+			return 0;
+		}
+		long kept = 0;
+		for (int j = 0; j < resources.length; j++) {
+			resources[j] = (int) (resources[j] * (long) limit / total);
+			kept += resources[j];
+		}
+		return (int) (total - kept);
+	}
+}
@@ -1,10 +1,14 @@
 package resource_allocation;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import ga_engine.ElitistReplacement;
+import ga_engine.GeneticEngine;
+import ga_engine.Genome;
+import ga_engine.MultiObjectiveEngine;
+import ga_engine.TournamentSelection;
 
 public class MicroGeneticAlgorithm {
     private static final int POPULATION_SIZE = 500;
@@ -13,11 +17,17 @@ public class MicroGeneticAlgorithm {
     private static final double CROSSOVER_RATE = 0.8;
     private static final double ELITISM_RATE = 0.2;
     private static final double MUTATION_RATE = 0.0;
-    private static final Random RANDOM = new Random();
 
-    private static class ResourceAllocation {
+    private static final int BREEDING_SLICES = 8;
+
+    // Multi-objective mode: NSGA-II on cost (minimized) and efficiency (maximized) instead of
+    // the combined 1 / (cost + efficiency), prints the Pareto front
+    private static final boolean PARETO = false;
+
+    static class ResourceAllocation implements Genome {
         private final int[] resources;
-        private double fitness;
+        // Pulled back under RESOURCE_LIMIT since crossover built it
+        private boolean repaired;
 
         public ResourceAllocation(int[] resources) {
             this.resources = resources;
@@ -27,6 +37,16 @@ public class MicroGeneticAlgorithm {
             return resources;
         }
 
+        @Override
+        public int length() {
+            return resources.length;
+        }
+
+        @Override
+        public ResourceAllocation copy() {
+            return new ResourceAllocation(resources.clone());
+        }
+
         public double getCost() {
             // Calculate the total cost of the supply chain
             // based on the allocated resources
@@ -40,80 +60,117 @@ public class MicroGeneticAlgorithm {
             double output = resources[2];
             return output / input;
         }
-
-        public double getFitness() {
-            return fitness;
-        }
     }
 
     public static void main(String[] args) {
-        // Initialize the population
-        ArrayList<ResourceAllocation> population = new ArrayList<>();
-        for (int i = 0; i < POPULATION_SIZE; i++) {
-            int[] resources = new int[3];
-            resources[0] = RANDOM.nextInt(RESOURCE_LIMIT);
-            resources[1] = RANDOM.nextInt(RESOURCE_LIMIT - resources[0]);
-            resources[2] = RESOURCE_LIMIT - resources[0] - resources[1];
-            population.add(new ResourceAllocation(resources));
+        if (PARETO) {
+            runPareto();
+            return;
         }
 
+        Repairs repairs = new Repairs();
+        GeneticEngine<ResourceAllocation> ga = newEngine(POPULATION_SIZE, repairs);
+
         // Evolution loop
-        for (int generation = 0; generation < MAX_GENERATIONS; generation++) {
-            // Evaluate the fitness of each res in the population
-            for (ResourceAllocation res : population) {
-                res.fitness = 1 / (res.getCost() + res.getEfficiency());
-            }
+        ga.run(MAX_GENERATIONS);
 
-            // Sort the population by fitness in descending order
-            Collections.sort(population, Comparator.comparingDouble(ResourceAllocation::getFitness).reversed());
+        // Print the best solution found
+        ResourceAllocation bestres = ga.getBest().getGenome();
+        System.out.println("Best allocation: " + Arrays.toString(bestres.getResources()));
+        System.out.println("Cost: " + bestres.getCost());
+        System.out.println("Efficiency: " + bestres.getEfficiency());
+        System.out.println("Budget repair: " + repairs);
+    }
 
-            // Select the elite ress for the next generation
-            int eliteSize = (int) (POPULATION_SIZE * ELITISM_RATE);
-            ArrayList<ResourceAllocation> newPopulation = new ArrayList<>();
-            for (int i = 0; i < eliteSize; i++) {
-                newPopulation.add(population.get(i));
+    // Children an engine bred and how many of them the repair pulled back under
+    // RESOURCE_LIMIT, counted from every breeding slice, each child at most once
+    static final class Repairs {
+        private final LongAdder children = new LongAdder();
+        private final LongAdder repaired = new LongAdder();
+
+        int crossover(ResourceAllocation parent1, ResourceAllocation parent2,
+                ResourceAllocation child, ResourceAllocation unused, RandomGenerator random) {
+            int written = MicroGeneticAlgorithm.crossover(parent1, parent2, child, unused, random);
+            children.increment();
+            if (child.repaired) {
+                repaired.increment();
             }
+            return written;
+        }
 
-            // Create the next generation
-            for (int i = eliteSize; i < POPULATION_SIZE; i++) {
-                ResourceAllocation parent1 = selectParent(population);
-                ResourceAllocation parent2 = selectParent(population);
+        // Mutation follows crossover on the same child, only count it if crossover did not
+        void mutate(ResourceAllocation res, RandomGenerator random) {
+            boolean counted = res.repaired;
+            MicroGeneticAlgorithm.mutate(res, random);
+            if (res.repaired && !counted) {
+                repaired.increment();
+            }
+        }
 
-                ResourceAllocation child = crossover(parent1, parent2);
+        @Override
+        public String toString() {
+            return repaired.sum() + " of " + children.sum() + " children";
+        }
+    }
 
-                if (RANDOM.nextDouble() < MUTATION_RATE) {
-                    mutate(child);
-                }
+    // Initialize the population, elites survive and tournaments of two pick the parents
+    static GeneticEngine<ResourceAllocation> newEngine(int populationSize, Repairs repairs) {
+        GeneticEngine<ResourceAllocation> ga = new GeneticEngine<>(populationSize,
+                MicroGeneticAlgorithm::randomAllocation,
+                res -> 1 / (res.getCost() + res.getEfficiency()),
+                new TournamentSelection<>(2),
+                repairs::crossover,
+                new ElitistReplacement<>(ELITISM_RATE));
+        ga.setMutation(repairs::mutate, MUTATION_RATE);
+        ga.setBreedingSlices(BREEDING_SLICES);
+        ga.setPooling(true);
+        return ga;
+    }
 
-                newPopulation.add(child);
-            }
+    static MultiObjectiveEngine<ResourceAllocation> newParetoEngine(int populationSize) {
+        MultiObjectiveEngine<ResourceAllocation> ga = new MultiObjectiveEngine<>(populationSize, 2,
+                MicroGeneticAlgorithm::randomAllocation,
+                MicroGeneticAlgorithm::objectives,
+                MicroGeneticAlgorithm::crossover);
+        ga.setMutation(MicroGeneticAlgorithm::mutate, MUTATION_RATE);
+        return ga;
+    }
 
-            population = newPopulation;
-        }
+    private static void runPareto() {
+        MultiObjectiveEngine<ResourceAllocation> ga = newParetoEngine(POPULATION_SIZE);
+        int[] front = ga.run(MAX_GENERATIONS);
+
+        // One line per distinct point, cheapest first
+        System.out.println("Pareto front after " + ga.getGeneration() + " generations:");
+        Arrays.stream(front).boxed()
+                .sorted((a, b) -> Double.compare(ga.getObjective(b, 0), ga.getObjective(a, 0)))
+                .map(index -> "Cost: " + -ga.getObjective(index, 0) + ", efficiency: " + ga.getObjective(index, 1)
+                        + ", allocation: " + Arrays.toString(ga.getGenome(index).getResources()))
+                .distinct()
+                .forEach(System.out::println);
+    }
 
-        // Print the best solution found
-        ResourceAllocation bestres = population.get(0);
-        System.out.println("Best allocation: " + Arrays.toString(bestres.getResources()));
-        System.out.println("Cost: " + bestres.getCost());
-        System.out.println("Efficiency: " + bestres.getEfficiency());
+    // Cost is minimized, so negated; an empty allocation (0 / 0) has no efficiency
+    static void objectives(ResourceAllocation res, double[] values, int offset) {
+        double efficiency = res.getEfficiency();
+        values[offset] = -res.getCost();
+        values[offset + 1] = Double.isNaN(efficiency) ? 0 : efficiency;
     }
 
-    private static ResourceAllocation selectParent(ArrayList<ResourceAllocation> population) {
-        // Select a parent using tournament selection
-        int tournamentSize = 2;
-        ArrayList<ResourceAllocation> tournament = new ArrayList<>();
-        for (int i = 0; i < tournamentSize; i++) {
-            tournament.add(population.get(RANDOM.nextInt(population.size())));
-        }
-        Collections.sort(tournament, Comparator.comparingDouble(ResourceAllocation::getFitness).reversed());
-        return tournament.get(0);
+    static ResourceAllocation randomAllocation(RandomGenerator random) {
+        int[] resources = new int[3];
+        resources[0] = random.nextInt(RESOURCE_LIMIT);
+        resources[1] = random.nextInt(RESOURCE_LIMIT - resources[0]);
+        resources[2] = RESOURCE_LIMIT - resources[0] - resources[1];
+        return new ResourceAllocation(resources);
     }
 
-    private static ResourceAllocation crossover(ResourceAllocation parent1, ResourceAllocation parent2) {
+    static int crossover(ResourceAllocation parent1, ResourceAllocation parent2,
+            ResourceAllocation child, ResourceAllocation unused, RandomGenerator random) {
         // Perform crossover using a two-point crossover
-        int[] childResources = new int[3];
-        int crossoverPoint1 = RANDOM.nextInt(3);
-        int crossoverPoint2 = RANDOM.nextInt(3 - crossoverPoint1) + crossoverPoint1;
+        int[] childResources = child.getResources();
+        int crossoverPoint1 = random.nextInt(3);
+        int crossoverPoint2 = random.nextInt(3 - crossoverPoint1) + crossoverPoint1;
         for (int i = 0; i < crossoverPoint1; i++) {
             childResources[i] = parent1.getResources()[i];
         }
@@ -123,12 +180,16 @@ public class MicroGeneticAlgorithm {
         for (int i = crossoverPoint2; i < 3; i++) {
             childResources[i] = parent1.getResources()[i];
         }
-        return new ResourceAllocation(childResources);
+        child.repaired = Budget.repair(childResources, RESOURCE_LIMIT) > 0;
+        return 1;
     }
 
-    private static void mutate(ResourceAllocation res) {
+    private static void mutate(ResourceAllocation res, RandomGenerator random) {
         // Perform mutation by randomly changing one resource allocation
-        int index = RANDOM.nextInt(3);
-        res.getResources()[index] = RANDOM.nextInt(RESOURCE_LIMIT);
+        int index = random.nextInt(3);
+        res.getResources()[index] = random.nextInt(RESOURCE_LIMIT);
+        if (Budget.repair(res.getResources(), RESOURCE_LIMIT) > 0) {
+            res.repaired = true;
+        }
     }
 }
@@ -0,0 +1,65 @@
+package resource_allocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import ga_engine.BatchResult;
+import ga_engine.BatchRunner;
+import ga_engine.Termination;
+
+// ResourceAllocation over a grid of mutation rates, elitism rates and population sizes,
+// every configuration with the same SEEDS seeds, all in one JVM. Mutation rates 0.0, 0.4
+// and 0.7 are the ones compared in Graphs/plot_mutation_*.png.
+public class ParameterSweep {
+    private static final double[] MUTATION_RATES = {0.0, 0.4, 0.7};
+    private static final double[] ELITISM_RATES = {0.1, 0.2, 0.3};
+    private static final int[] POPULATION_SIZES = {100, 400};
+    private static final int SEEDS = 10;
+    private static final long FIRST_SEED = 1;
+    private static final int MAX_GENERATIONS = 100;
+    private static final int STAGNATION_WINDOW = 10;
+
+    public static void main(String[] args) {
+        List<Settings> grid = new ArrayList<>();
+        for (double mutationRate : MUTATION_RATES) {
+            for (double elitismRate : ELITISM_RATES) {
+                for (int populationSize : POPULATION_SIZES) {
+                    grid.add(new Settings(populationSize, mutationRate, elitismRate));
+                }
+            }
+        }
+        long[] seeds = new long[SEEDS];
+        for (int i = 0; i < SEEDS; i++) {
+            seeds[i] = FIRST_SEED + i;
+        }
+
+        BatchRunner<Settings> runner = new BatchRunner<>(ParameterSweep::run);
+        for (BatchResult<Settings> result : runner.run(grid, seeds)) {
+            System.out.println(result);
+        }
+    }
+
+    private static double run(Settings settings, RandomGenerator random) {
+        return ResourceAllocation.run(settings.populationSize, settings.mutationRate, settings.elitismRate, random,
+                Termination.generations(MAX_GENERATIONS).or(Termination.stagnation(STAGNATION_WINDOW, 0.000001)));
+    }
+
+    static class Settings {
+        final int populationSize;
+        final double mutationRate;
+        final double elitismRate;
+
+        Settings(int populationSize, double mutationRate, double elitismRate) {
+            this.populationSize = populationSize;
+            this.mutationRate = mutationRate;
+            this.elitismRate = elitismRate;
+        }
+
+        @Override
+        public String toString() {
+            return "population " + populationSize + ", mutation " + mutationRate + ", elitism " + elitismRate;
+        }
+    }
+
+}
@@ -1,167 +1,362 @@
 package resource_allocation;
 
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Random;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import ga_engine.Checkpoint;
+import ga_engine.Crossover;
+import ga_engine.ElitistReplacement;
+import ga_engine.FitnessCache;
+import ga_engine.FitnessFunction;
+import ga_engine.GeneticEngine;
+import ga_engine.Genome;
+import ga_engine.GenomeCodec;
+import ga_engine.GenomeFactory;
+import ga_engine.Individual;
+import ga_engine.IslandModel;
+import ga_engine.MultiObjectiveEngine;
+import ga_engine.Mutation;
+import ga_engine.ParallelEvaluator;
+import ga_engine.Population;
+import ga_engine.SplitMixRandom;
+import ga_engine.Surrogate;
+import ga_engine.SurrogateEvaluator;
+import ga_engine.Termination;
+import ga_engine.TournamentSelection;
 
 public class ResourceAllocation {
 	private static final int POPULATION_SIZE = 400;
 	private static final int NUMBER_RESOURCES = 6;
 	private static final int NUMBER_PRODUCTS = 4;
     private static final int MAX_GENERATIONS = 100;
+    private static final int STAGNATION_WINDOW = 10;
     private static final int RESOURCE_LIMIT = 100;
     private static final double ELITISM_RATE = 0.2;
-    private static final Random RANDOM = new Random();
+    private static final int FITNESS_CACHE_SIZE = 10000;
+    // Children are bred and scored in this many parallel slices, fixed so a seed gives
+    // the same run on any machine
+    private static final int BREEDING_SLICES = 8;
+    private static final int CHECKPOINT_INTERVAL = 10;
+    private static final int PRINT_INTERVAL = 1;
+    private static final String CHECKPOINT_FILE = "resource_allocation.checkpoint";
+    
+    // Surrogate pre-screening for an expensive profit model: only this share of the children
+    // gets a real evaluation, 1 evaluates all of them
+    private static final double EXACT_FRACTION = 1.0;
+    private static final int NEIGHBOURS = 5;
+    private static final int SURROGATE_CAPACITY = 8192;
+    
+    // Island mode: more than one island evolves that many populations in parallel
+    private static final int ISLANDS = 1;
+    private static final int MIGRATION_INTERVAL = 5;
+    
+    // Dynamic mode: converge, apply a price shock while the optimizer runs and compare the
+    // warm-started population with a cold start on the new data
+    private static final boolean DYNAMIC = false;
+    
+    // Multi-objective mode: NSGA-II on profit, cost and penalty instead of the combined fitness,
+    // prints the Pareto front
+    private static final boolean PARETO = false;
+    private static final long DYNAMIC_SEED = 1;
+    
+    // Problem data: price per resource unit, resources needed per product and selling price per product
+    static final double[] PRICES = {1.5, 4.0, 6.5, 8.0, 2.0, 9.5};
+    static final int[][] NEEDED_RESOURCES = { {2, 1, 3, 0, 2, 1},
+    	{1, 3, 0, 2, 1, 3},
+    	{3, 2, 1, 0, 1, 3},
+    	{0, 2, 1, 3, 0, 1} };
+    static final double[] SELLING_PRICES = {120, 180, 148.5, 144};
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException, InterruptedException {
 		// Initialize manager and population
-		double prices[] = new double[] {1.5, 4.0, 6.5, 8.0, 2.0, 9.5};
-		int[][] neededResources = new int[][] { {2, 1, 3, 0, 2, 1},
-			{1, 3, 0, 2, 1, 3},
-			{3, 2, 1, 0, 1, 3},
-			{0, 2, 1, 3, 0, 1} };
-			double sellingPrices[] = new double[] {120, 180, 148.5, 144};
-		Manager man = new Manager(NUMBER_RESOURCES, prices, RESOURCE_LIMIT, POPULATION_SIZE, NUMBER_PRODUCTS, neededResources, sellingPrices);
+		Manager man = newManager();
 		
-		man.populateR(POPULATION_SIZE);
-		man.populateP(3, neededResources, sellingPrices);
-
-		// Initial evaluation
-		man.evaluate();
+		if (ISLANDS > 1) {
+			runIslands(man);
+			return;
+		}
+		if (DYNAMIC) {
+			runDynamic(man);
+			return;
+		}
+		if (PARETO) {
+			runPareto(man);
+			return;
+		}
 		
-        // Evolution loop
-		int generation = 0;
-		double oldFitness = 0;
-		while (generation < MAX_GENERATIONS) {
-
-			// Sort the population by fitness in descending order
-			Arrays.sort(man.getResource(), Comparator.comparingDouble(Resource::getFitness).reversed());
-			
-			// Print attributes
-			System.out.println("Generation: " + generation);
-			Resource bestres = man.getResource()[0];
+		FitnessCache<Resource> cache = newCache(man);
+		GeneticEngine<Resource> ga = newEngine(POPULATION_SIZE, man, cache);
+		
+		// The screen needs the evaluator, breeding slices would score the children themselves
+		Surrogate surrogate = null;
+		if (EXACT_FRACTION < 1) {
+			surrogate = newSurrogate();
+			ga.setEvaluator(new SurrogateEvaluator<>(new ParallelEvaluator<>(), surrogate, ResourceAllocation::features));
+			ga.setBreedingSlices(1);
+		}
+		
+		// Print the best allocation every PRINT_INTERVAL generations, the statistics are only
+		// collected for the generations that are printed
+		ga.setListener(metrics -> {
+			Resource bestres = ga.getBest().getGenome();
+			System.out.println("Generation: " + metrics.getGeneration());
 			System.out.println("Best allocation: " + Arrays.toString(bestres.getResources()));
 			System.out.println("Cost: " + bestres.getCost());
-			System.out.println("Profit: " + man.evalProfit(bestres)[0]);
-			System.out.println("Penalty: " + man.evalProfit(bestres)[1]);
-			System.out.println("Fitness: " + bestres.getFitness());
+			System.out.println("Fitness: " + metrics.getBest());
+		}, PRINT_INTERVAL);
+
+		// Checkpoint every CHECKPOINT_INTERVAL generations, an interrupted run continues from the last one
+		Path checkpointFile = Path.of(CHECKPOINT_FILE);
+		try (Checkpoint<Resource> checkpoint = new Checkpoint<>(checkpointFile, POPULATION_SIZE,
+				new ResourceCodec(NUMBER_RESOURCES))) {
 			
-			if (bestres.getFitness() - oldFitness < 0.000001) {
-				break;
+			// Initial evaluation, unless there is a checkpoint to resume from
+			if (!checkpoint.restore(ga)) {
+				ga.initialize();
 			}
-			oldFitness = bestres.getFitness();
 			
-            // Select the elite resources for the next generation
-            int eliteSize = (int) (POPULATION_SIZE * ELITISM_RATE);
-            Resource newPopulation[] = new Resource[POPULATION_SIZE];
-            for (int i = 0; i < eliteSize; i++) {
-                newPopulation[i] = man.getResource()[i];
-            }
-
-            // Create the next generation
-            for (int i = eliteSize; i < POPULATION_SIZE; i++) {
-                // Select parents
-                Resource parent1 = man.select();
-                Resource parent2 = man.select();
-
-                Resource child;
-                do {
-                	child = man.crossover(parent1, parent2);
-                	// Only for testing purposes against a full GA
-                	// Default mutation rate is 0.0
-                	if (RANDOM.nextDouble() <= man.getMutationRate()) {
-                        man.mutate(child);
-                    }
-                } while (Arrays.stream(child.getResources()).sum() > RESOURCE_LIMIT);
-
-                newPopulation[i] = child;
-            }
-        	
-            man.setResource(newPopulation);
-            
-            // Evaluate new fitness
-            man.evaluate();
-            
-            generation++;
-        }
+			// Evolution loop: stop at MAX_GENERATIONS or once the best fitness has not improved
+			// for STAGNATION_WINDOW generations (the window starts again after a resume)
+			Termination stop = Termination.generations(MAX_GENERATIONS)
+					.or(Termination.stagnation(STAGNATION_WINDOW, 0.000001));
+			while (!ga.isDone(stop)) {
+				// Keep the elite resources, breed the rest of the next generation and evaluate new fitness
+				ga.step();
+				if (ga.getGeneration() % CHECKPOINT_INTERVAL == 0) {
+					checkpoint.save(ga);
+				}
+			}
+		}
+		// The run is complete, the next one starts from scratch
+		Files.deleteIfExists(checkpointFile);
 		
-		if (generation == MAX_GENERATIONS) {
-			System.out.println("Generation: " + generation);
-			Resource bestres = man.getResource()[0];
-			System.out.println("Best allocation: " + Arrays.toString(bestres.getResources()));
-			System.out.println("Cost: " + bestres.getCost());
-			System.out.println("Profit: " + man.evalProfit(bestres)[0]);
-			System.out.println("Penalty: " + man.evalProfit(bestres)[1]);
-			System.out.println("Fitness: " + bestres.getFitness());			
+		// Final allocation with its profit
+		Resource bestres = ga.getBest().getGenome();
+		double[] profit = man.evalProfit(bestres);
+		System.out.println("Best allocation after " + ga.getGeneration() + " generations: "
+				+ Arrays.toString(bestres.getResources()));
+		System.out.println("Cost: " + bestres.getCost());
+		System.out.println("Profit: " + profit[0]);
+		System.out.println("Penalty: " + profit[1]);
+		System.out.println("Fitness: " + ga.getBest().getFitness());
+		
+		System.out.println("Fitness cache: " + cache);
+		System.out.println("Budget repair: " + man.getRepairStats());
+		if (surrogate != null) {
+			System.out.println("Surrogate: " + surrogate);
 		}
+	}
+	
+	static Manager newManager() {
+		return newManager(0.0);
+	}
+	
+	static Manager newManager(double mutationRate) {
+		return new Manager(NUMBER_RESOURCES, PRICES, RESOURCE_LIMIT, NUMBER_PRODUCTS, NEEDED_RESOURCES, SELLING_PRICES,
+				mutationRate);
+	}
+	
+	// Same problem with other data, e.g. for a cold start to compare against an update
+	static Manager newManager(double[] prices, int[][] neededResources, double[] sellingPrices) {
+		return new Manager(NUMBER_RESOURCES, prices, RESOURCE_LIMIT, neededResources.length, neededResources,
+				sellingPrices);
+	}
+	
+	// Allocations repeat a lot, remember the fitness of the last FITNESS_CACHE_SIZE ones
+	static FitnessCache<Resource> newCache(Manager man) {
+		return new FitnessCache<>(man, Resource::getResources, FITNESS_CACHE_SIZE);
+	}
+	
+	// k-NN model of the fitness over the allocation space
+	static Surrogate newSurrogate() {
+		double[] min = new double[NUMBER_RESOURCES];
+		double[] max = new double[NUMBER_RESOURCES];
+		Arrays.fill(max, RESOURCE_LIMIT);
+		return new Surrogate(min, max, NEIGHBOURS, SURROGATE_CAPACITY, EXACT_FRACTION);
+	}
+	
+	static void features(Resource res, double[] out) {
+		int[] resources = res.getResources();
+		for (int i = 0; i < resources.length; i++) {
+			out[i] = resources[i];
+		}
+	}
+	
+	// The manager creates and breeds resources, the cache in front of it scores them
+	// and the engine runs the generations
+	static GeneticEngine<Resource> newEngine(int populationSize, Manager man, FitnessCache<Resource> cache) {
+		GeneticEngine<Resource> ga = new GeneticEngine<>(populationSize, man, cache,
+				new TournamentSelection<>(5), man, new ElitistReplacement<>(ELITISM_RATE));
+		ga.setEvaluator(new ParallelEvaluator<>());
+		ga.setBreedingSlices(BREEDING_SLICES);
+		ga.setPooling(true);
+		return ga;
+	}
+	
+	// One self-contained run for parameter sweeps (see ParameterSweep) with its own manager and
+	// engine. Sweeps already run in parallel, so the children are scored on the calling thread.
+	static double run(int populationSize, double mutationRate, double elitismRate, RandomGenerator random,
+			Termination stop) {
+		Manager man = newManager(mutationRate);
+		GeneticEngine<Resource> ga = new GeneticEngine<>(populationSize, man, man,
+				new TournamentSelection<>(5), man, new ElitistReplacement<>(elitismRate));
+		ga.setRandom(random);
+		ga.setPooling(true);
+		return ga.run(stop).getFitness();
+	}
+	
+	// A running optimizer takes a price shock, then the same data again from scratch
+	private static void runDynamic(Manager man) throws InterruptedException {
+		DynamicOptimizer optimizer = new DynamicOptimizer(POPULATION_SIZE, man, new SplitMixRandom(DYNAMIC_SEED));
+		Thread thread = new Thread(optimizer, "optimizer");
+		thread.start();
+		System.out.println("Cold start: " + optimizer.awaitConverged(0));
 		
-
+		// Two resources get dearer, one product sells for less
+		double[] prices = PRICES.clone();
+		prices[1] *= 1.5;
+		prices[5] *= 1.5;
+		double[] sellingPrices = SELLING_PRICES.clone();
+		sellingPrices[1] *= 0.8;
+		optimizer.update(prices, NEEDED_RESOURCES, sellingPrices);
+		DynamicOptimizer.Status warm = optimizer.awaitConverged(1);
+		System.out.println("After the update: " + warm);
+		optimizer.stop();
+		thread.join();
+		
+		DynamicOptimizer cold = new DynamicOptimizer(POPULATION_SIZE, newManager(prices, NEEDED_RESOURCES, sellingPrices),
+				new SplitMixRandom(DYNAMIC_SEED));
+		thread = new Thread(cold, "optimizer");
+		thread.start();
+		DynamicOptimizer.Status restart = cold.awaitConverged(0);
+		System.out.println("Cold start on the new data: " + restart);
+		cold.stop();
+		thread.join();
+	}
+	
+	static MultiObjectiveEngine<Resource> newParetoEngine(int populationSize, Manager man) {
+		return new MultiObjectiveEngine<>(populationSize, 3, man, man::objectives, man);
+	}
+	
+	private static void runPareto(Manager man) {
+		MultiObjectiveEngine<Resource> ga = newParetoEngine(POPULATION_SIZE, man);
+		int[] front = ga.run(MAX_GENERATIONS);
+		
+		// One line per distinct point, most profitable first
+		System.out.println("Pareto front after " + ga.getGeneration() + " generations:");
+		Arrays.stream(front).boxed()
+				.sorted((a, b) -> Double.compare(ga.getObjective(b, 0), ga.getObjective(a, 0)))
+				.map(index -> "Profit: " + ga.getObjective(index, 0) + ", cost: " + -ga.getObjective(index, 1)
+						+ ", penalty: " + -ga.getObjective(index, 2) + ", allocation: "
+						+ Arrays.toString(ga.getGenome(index).getResources()))
+				.distinct()
+				.forEach(System.out::println);
+	}
+	
+	// ISLANDS populations on their own threads, every island shares its best with all the others
+	private static void runIslands(Manager man) {
+		FitnessCache<Resource> cache = newCache(man);
+		IslandModel<Resource> islands = new IslandModel<>(ISLANDS, island -> newEngine(POPULATION_SIZE, man, cache),
+				IslandModel.Topology.FULLY_CONNECTED, MIGRATION_INTERVAL);
+		Individual<Resource> best = islands.run(MAX_GENERATIONS);
+		
+		Resource bestres = best.getGenome();
+		System.out.println("Islands: " + ISLANDS);
+		System.out.println("Best allocation: " + Arrays.toString(bestres.getResources()));
+		double[] profit = man.evalProfit(bestres);
+		System.out.println("Cost: " + bestres.getCost());
+		System.out.println("Profit: " + profit[0]);
+		System.out.println("Penalty: " + profit[1]);
+		System.out.println("Fitness: " + best.getFitness());
+		System.out.println("Fitness cache: " + cache);
+		System.out.println("Budget repair: " + man.getRepairStats());
 	}
 }
 
-class Manager {
+class Manager implements GenomeFactory<Resource>, FitnessFunction<Resource>, Crossover<Resource>, Mutation<Resource> {
 	private int n;
 	private double prices[];
 	private int limit;
 	private double mutationRate;
-	private Random random = new Random();
 	
-	private Resource[] resources;
 	private Product[] products;
+	private ProfitEvaluator profitEvaluator;
+	
+	// Repair counters, children bred (possibly on several island threads)
+	private final LongAdder children = new LongAdder();
+	private final LongAdder repaired = new LongAdder();
+	private final LongAdder trimmedUnits = new LongAdder();
 	
 	// Constructor with user defined values
-	public Manager(int n, double[] prices, int limit, int populationSize, int numberProducts, int[][] neededResources, double[] sellingPrices) {
-		this.n = n;
-		this.prices = prices;
-		this.limit = limit;
-		this.mutationRate = 0.0;
-		
-		this.populateR(populationSize);
-		this.populateP(3, neededResources, sellingPrices);
+	public Manager(int n, double[] prices, int limit, int numberProducts, int[][] neededResources, double[] sellingPrices) {
+		this(n, prices, limit, numberProducts, neededResources, sellingPrices, 0.0);
 	}
 	
-	public Manager(int n, double[] prices, int limit, int populationSize, int numberProducts, int[][] neededResources, double[] sellingPrices, double mutationRate) {
+	public Manager(int n, double[] prices, int limit, int numberProducts, int[][] neededResources, double[] sellingPrices, double mutationRate) {
 		this.n = n;
 		this.prices = prices;
 		this.limit = limit;
 		this.mutationRate = mutationRate;
 		
-		this.populateR(populationSize);
-		this.populateP(3, neededResources, sellingPrices);
+		this.populateP(numberProducts, neededResources, sellingPrices);
 	}
 	
 	// Get and set methods
-	public Resource[] getResource() {
-		return resources;
+	public double getMutationRate() {
+		return mutationRate;
 	}
 	
-	public void setResource(Resource[] resources) {
-		this.resources = resources;
+	// Share of children that were over budget and had to be repaired,
+	// the old loop had to reject and rebreed each of them at least once
+	public double getRepairRate() {
+		long bred = children.sum();
+		return bred == 0 ? 0 : (double) repaired.sum() / bred;
 	}
 	
-	public double getMutationRate() {
-		return mutationRate;
+	public String getRepairStats() {
+		return "repaired " + repaired.sum() + " of " + children.sum() + " children ("
+				+ Math.round(getRepairRate() * 1000) / 10.0 + "%), " + trimmedUnits.sum() + " units trimmed";
 	}
 	
-	// Create num Resources
-	public void populateR(int num) {
-		Resource[] population = new Resource[num];
-		for (int i = 0; i < num; i++) {
-			int runningSum = 0;
-			int resources[] = new int[n];
-			double varCost = 0.0;
-			
-			for (int j = 0; j < n; j++) {
-				resources[j] = random.nextInt(limit - runningSum);
-				runningSum += resources[j];
-				varCost += resources[j] * prices[j];
-			}
-			
-			population[i] = new Resource(resources, varCost);
+	// New problem data for the next generations, on the thread that runs the engine and
+	// between two steps. Resources keep their old cost until they are repriced.
+	public void update(double[] prices, int[][] neededResources, double[] sellingPrices) {
+		if (prices.length != n) {
+			throw new IllegalArgumentException("expected " + n + " prices, got " + prices.length);
+		}
+		this.prices = prices;
+		this.populateP(neededResources.length, neededResources, sellingPrices);
+	}
+	
+	// Recompute the cost of res with the current prices
+	public void reprice(Resource res) {
+		res.setCost(cost(res.getResources()));
+	}
+	
+	// Create a random Resource within the limit
+	@Override
+	public Resource create(RandomGenerator random) {
+		int runningSum = 0;
+		int resources[] = new int[n];
+		double varCost = 0.0;
+		
+		for (int j = 0; j < n; j++) {
+			resources[j] = random.nextInt(limit - runningSum);
+			runningSum += resources[j];
+			varCost += resources[j] * prices[j];
 		}
 		
-		resources = population;
+		return new Resource(resources, varCost);
 	}
 	
 	// Create num Products
@@ -171,24 +366,22 @@ class Manager {
 			population[i] = new Product(res[i], prix[i]);
 		}
 		
+		// Most expensive products first, sorted once so evalProfit never writes shared state
+		// and can be called from several evaluator threads
+		Arrays.sort(population, Comparator.comparingDouble(Product::getPrice).reversed());
 		products = population;
+		profitEvaluator = new ProfitEvaluator(products, n);
 	}
 	
-	// Evaluate and set the fitness of a resource
-	public void evaluate() {
-        for (Resource res : resources) {
-            double fitness = evaluate(res);
-            res.setFitness(fitness);
-        }
-    }
-	
-    private double evaluate(Resource res) {
-    	double[] arr = evalProfit(res);
+	// Evaluate the fitness of a resource
+	@Override
+    public double evaluate(Resource res) {
+    	double[] arr = profitEvaluator.evaluate(res.getResources());
     	double profit = arr[0];
     	double penalty = arr[1];
     	double result = 0.0;
     	try {
-    		result = (profit / res.getCost()) * (Arrays.stream(res.getResources()).sum() - penalty) / (3 * limit);
+    		result = (profit / res.getCost()) * (res.getTotal() - penalty) / (3 * limit);
     		if (result < 0) {
     			result = 0;
     		}
@@ -198,50 +391,54 @@ class Manager {
         return result;
     }
     
+    // Profit (maximized), cost and penalty (minimized, so negated) as separate objectives
+    // for the multi-objective engine
+    public void objectives(Resource res, double[] values, int offset) {
+    	double[] arr = profitEvaluator.evaluate(res.getResources());
+    	values[offset] = arr[0];
+    	values[offset + 1] = -res.getCost();
+    	values[offset + 2] = -arr[1];
+    }
+    
     // Helper function - returns the maximum profit we can get from the given resource
+    // and the penalty (resources left unused), as a new array
     public double[] evalProfit(Resource res) {
-    	Arrays.sort(products, Comparator.comparingDouble(Product::getPrice).reversed());
-    	double profit = 0.0;
-    	int[] localCopy = Arrays.copyOf(res.getResources(), res.getResources().length);
-        
-    	for (int i = 0; i < products.length; i++) {
-    		while(isAvailable(products[i].getNeededResources(), localCopy)) {
-    			Product product = products[i];
-    			Arrays.setAll(localCopy, j -> localCopy[j] - product.getNeededResources()[j]);
-    			profit += product.getPrice();
-    		}
+    	return profitEvaluator.evaluate(res.getResources()).clone();
+    }
+	
+    // Breed one child that stays within the resource limit: crossover, optional mutation
+    // and, if the child went over budget, one repair pass
+    @Override
+    public int crossover(Resource parent1, Resource parent2, Resource child, Resource unused, RandomGenerator random) {
+    	crossover(parent1, parent2, child, random);
+    	// Only for testing purposes against a full GA
+    	// Default mutation rate is 0.0
+    	if (random.nextDouble() < mutationRate) {
+            mutate(child, random);
+        }
+    	
+    	int trimmed = Budget.repair(child.getResources(), limit);
+    	children.increment();
+    	if (trimmed > 0) {
+    		repaired.increment();
+    		trimmedUnits.add(trimmed);
+    		child.setCost(cost(child.getResources()));
     	}
-    	double penalty = Arrays.stream(localCopy).sum();
-    	return new double[]{profit, penalty};
+        
+        return 1;
     }
     
-    // Helper function - returns true if all the neccessary resources for the given product are available
-    private boolean isAvailable(int[] needed, int[] available) {
-    	assert needed.length == available.length;
-    	for (int i = 0; i < available.length; i++) {
-    		if (available[i] - needed[i] < 0) {
-    			return false;
-    		}
+    private double cost(int[] resources) {
+    	double varCost = 0.0;
+    	for (int j = 0; j < n; j++) {
+    		varCost += resources[j] * prices[j];
     	}
-    	return true;
-    }
-	
-	// Tournament selection
-	// Choose five random resources and choose the best one of them
-	public Resource select() {
-        Resource best = null;
-        for (int i = 0; i < 5; i++) {
-            Resource res = resources[random.nextInt(n)];
-            if (best == null || res.getFitness() > best.getFitness()) {
-                best = res;
-            }
-        }
-        return best;
+    	return varCost;
     }
     
-    // Perform crossover using a two-point crossover
-    public Resource crossover(Resource parent1, Resource parent2) {
-        int[] childResources = new int[n];
+    // Perform crossover using a two-point crossover, writing into child
+    public void crossover(Resource parent1, Resource parent2, Resource child, RandomGenerator random) {
+        int[] childResources = child.getResources();
         int crossoverPoint1 = random.nextInt(n);
         int crossoverPoint2 = random.nextInt(n - crossoverPoint1) + crossoverPoint1;
         double varCost = 0.0;
@@ -259,11 +456,12 @@ class Manager {
             varCost += childResources[i] * prices[i];
         }
         
-        return new Resource(childResources, varCost);
+        child.setCost(varCost);
     }
     
     // Perform mutation by randomly changing one resource allocation
-    public void mutate(Resource res) {
+    @Override
+    public void mutate(Resource res, RandomGenerator random) {
         int index = random.nextInt(res.getResources().length);
         res.setCost(res.getCost() - res.getResources()[index] * prices[index]);
         res.getResources()[index] = random.nextInt(limit);
@@ -271,10 +469,9 @@ class Manager {
     }
 }
 
-class Resource {
+class Resource implements Genome {
 	private int resources[];
 	private double cost;
-	private double fitness;
 	
 	// Construction with user defined values
 	public Resource(int[] resources, double cost) {
@@ -295,12 +492,55 @@ class Resource {
 		return resources;
 	}
 	
-	public void setFitness(double fitness) {
-		this.fitness = fitness;
+	// Total amount of resources allocated
+	public int getTotal() {
+		int total = 0;
+		for (int amount : resources) {
+			total += amount;
+		}
+		return total;
+	}
+	
+	@Override
+	public int length() {
+		return resources.length;
 	}
 	
-	public double getFitness() {
-		return fitness;
+	@Override
+	public Resource copy() {
+		return new Resource(resources.clone(), cost);
+	}
+}
+
+// Checkpoint form of a Resource: the cost, then one int per resource
+class ResourceCodec implements GenomeCodec<Resource> {
+	private final int n;
+	
+	public ResourceCodec(int n) {
+		this.n = n;
+	}
+	
+	@Override
+	public int bytes() {
+		return Double.BYTES + n * Integer.BYTES;
+	}
+	
+	@Override
+	public void encode(Resource res, ByteBuffer buffer, int offset) {
+		buffer.putDouble(offset, res.getCost());
+		int[] resources = res.getResources();
+		for (int i = 0; i < n; i++) {
+			buffer.putInt(offset + Double.BYTES + i * Integer.BYTES, resources[i]);
+		}
+	}
+	
+	@Override
+	public Resource decode(ByteBuffer buffer, int offset) {
+		int[] resources = new int[n];
+		for (int i = 0; i < n; i++) {
+			resources[i] = buffer.getInt(offset + Double.BYTES + i * Integer.BYTES);
+		}
+		return new Resource(resources, buffer.getDouble(offset));
 	}
 }
 
@@ -323,3 +563,281 @@ class Product {
 		return price;
 	}
 }
+
+// Greedy product packing compiled once for a sorted set of products. The needs are
+// flattened into one array and the number of units of each product that still fit
+// is worked out with one division per resource instead of building a unit at a time.
+// Each thread packs in its own scratch arrays, so evaluate() allocates nothing.
+class ProfitEvaluator {
+	private final int n;
+	private final int[] needs;
+	private final double[] prices;
+	private final ThreadLocal<int[]> available;
+	private final ThreadLocal<double[]> result;
+	
+	// products must already be in packing order (most expensive first)
+	public ProfitEvaluator(Product[] products, int n) {
+		this.n = n;
+		this.needs = new int[products.length * n];
+		this.prices = new double[products.length];
+		for (int p = 0; p < products.length; p++) {
+			System.arraycopy(products[p].getNeededResources(), 0, needs, p * n, n);
+			prices[p] = products[p].getPrice();
+		}
+		this.available = ThreadLocal.withInitial(() -> new int[n]);
+		this.result = ThreadLocal.withInitial(() -> new double[2]);
+	}
+	
+	// Returns {profit, penalty} in this thread's output slots, valid until its next call
+	public double[] evaluate(int[] resources) {
+		int[] left = available.get();
+		System.arraycopy(resources, 0, left, 0, n);
+		double profit = 0.0;
+		
+		for (int p = 0; p < prices.length; p++) {
+			int base = p * n;
+			int units = Integer.MAX_VALUE;
+			for (int j = 0; j < n && units > 0; j++) {
+				int need = needs[base + j];
+				if (need > 0) {
+					units = Math.min(units, left[j] / need);
+				} else if (left[j] < 0) {
+					units = 0;
+				}
+			}
+			// A product that needs nothing could be built forever, it is skipped
+			if (units <= 0 || units == Integer.MAX_VALUE) {
+				continue;
+			}
+			for (int j = 0; j < n; j++) {
+				left[j] -= units * needs[base + j];
+			}
+			profit += units * prices[p];
+		}
+		
+		int penalty = 0;
+		for (int j = 0; j < n; j++) {
+			penalty += left[j];
+		}
+		double[] out = result.get();
+		out[0] = profit;
+		out[1] = penalty;
+		return out;
+	}
+}
+
+/**
+ * Long-running optimizer for problem data that changes while it runs. update() can be
+ * called from any thread, the optimizer thread applies the latest data between two
+ * generations: every resource is repriced, the fitness cache is cleared, duplicate
+ * allocations are swapped for random immigrants and everyone is re-scored, then evolution
+ * goes on from the existing individuals. Once the best fitness stagnates the thread
+ * waits for the next update.
+ */
+class DynamicOptimizer implements Runnable {
+	private static final int MAX_GENERATIONS = 100;
+	private static final int STAGNATION_WINDOW = 10;
+	private static final double EPSILON = 0.000001;
+	
+	private final Manager man;
+	private final FitnessCache<Resource> cache;
+	private final GeneticEngine<Resource> ga;
+	private final RandomGenerator random;
+	
+	// Guarded by this
+	private Market pending;
+	private boolean stopped;
+	private Status status;
+	
+	public DynamicOptimizer(int populationSize, Manager man, RandomGenerator random) {
+		this.man = man;
+		this.cache = ResourceAllocation.newCache(man);
+		this.ga = ResourceAllocation.newEngine(populationSize, man, cache);
+		this.random = random;
+		ga.setRandom(random);
+	}
+	
+	// Replace the problem data, the optimizer picks it up before its next generation.
+	// Only the latest of several quick updates is applied.
+	public synchronized void update(double[] prices, int[][] neededResources, double[] sellingPrices) {
+		int[][] needed = new int[neededResources.length][];
+		for (int i = 0; i < needed.length; i++) {
+			needed[i] = neededResources[i].clone();
+		}
+		pending = new Market(prices.clone(), needed, sellingPrices.clone());
+		notifyAll();
+	}
+	
+	public synchronized void stop() {
+		stopped = true;
+		notifyAll();
+	}
+	
+	// Latest state, null before the first generation
+	public synchronized Status getStatus() {
+		return status;
+	}
+	
+	// Wait until the data of update number version (0 is the initial data) has converged
+	public synchronized Status awaitConverged(int version) throws InterruptedException {
+		while (status == null || status.version < version || !status.converged) {
+			if (stopped) {
+				throw new IllegalStateException("optimizer stopped");
+			}
+			wait();
+		}
+		return status;
+	}
+	
+	@Override
+	public void run() {
+		ga.initialize();
+		int version = 0;
+		int since = 0;
+		int improved = 0;
+		double best = Double.NEGATIVE_INFINITY;
+		Termination converged = newCriterion();
+		while (true) {
+			boolean done = ga.isDone(converged);
+			if (ga.getBest().getFitness() > best + EPSILON) {
+				best = ga.getBest().getFitness();
+				improved = ga.getGeneration();
+			}
+			
+			Market market;
+			synchronized (this) {
+				publish(version, since, improved, done);
+				try {
+					while (done && pending == null && !stopped) {
+						wait();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					stopped = true;
+				}
+				if (stopped) {
+					notifyAll();
+					return;
+				}
+				market = pending;
+				pending = null;
+			}
+			
+			if (market != null) {
+				apply(market);
+				version++;
+				since = ga.getGeneration();
+				improved = since;
+				best = Double.NEGATIVE_INFINITY;
+				converged = newCriterion();
+			} else {
+				ga.step();
+			}
+		}
+	}
+	
+	// Stop after MAX_GENERATIONS from now or once the best fitness stagnates
+	private Termination newCriterion() {
+		return Termination.generations(ga.getGeneration() + MAX_GENERATIONS)
+				.or(Termination.stagnation(STAGNATION_WINDOW, EPSILON));
+	}
+	
+	private void apply(Market market) {
+		man.update(market.prices, market.neededResources, market.sellingPrices);
+		cache.clear();
+		
+		// A converged population is mostly copies of a few allocations: every allocation is kept
+		// once as memory of the old optimum, copies make room for random immigrants
+		Population<Resource> population = ga.getPopulation();
+		Set<IntBuffer> seen = new HashSet<>();
+		for (int i = 0; i < population.size(); i++) {
+			if (!seen.add(IntBuffer.wrap(population.get(i).getGenome().getResources()))) {
+				population.set(i, new Individual<>(man.create(random)));
+			}
+		}
+		
+		// Old costs are stale, then every individual is scored with the new data
+		for (int i = 0; i < population.size(); i++) {
+			man.reprice(population.get(i).getGenome());
+		}
+		ga.rescore();
+	}
+	
+	private void publish(int version, int since, int improved, boolean converged) {
+		Individual<Resource> best = ga.getBest();
+		status = new Status(version, ga.getGeneration() - since, improved - since,
+				best.getGenome().getResources().clone(), best.getGenome().getCost(), best.getFitness(), converged);
+		notifyAll();
+	}
+	
+	private static final class Market {
+		final double[] prices;
+		final int[][] neededResources;
+		final double[] sellingPrices;
+		
+		Market(double[] prices, int[][] neededResources, double[] sellingPrices) {
+			this.prices = prices;
+			this.neededResources = neededResources;
+			this.sellingPrices = sellingPrices;
+		}
+	}
+	
+	// Snapshot of the optimizer between two generations
+	static final class Status {
+		private final int version;
+		private final int generations;
+		private final int improved;
+		private final int[] resources;
+		private final double cost;
+		private final double fitness;
+		private final boolean converged;
+		
+		Status(int version, int generations, int improved, int[] resources, double cost, double fitness,
+				boolean converged) {
+			this.version = version;
+			this.generations = generations;
+			this.improved = improved;
+			this.resources = resources;
+			this.cost = cost;
+			this.fitness = fitness;
+			this.converged = converged;
+		}
+		
+		// Number of updates applied
+		public int getVersion() {
+			return version;
+		}
+		
+		// Generations since the current data arrived
+		public int getGenerations() {
+			return generations;
+		}
+		
+		// Generations from the current data to the last improvement of the best fitness
+		public int getImproved() {
+			return improved;
+		}
+		
+		public int[] getResources() {
+			return resources.clone();
+		}
+		
+		public double getCost() {
+			return cost;
+		}
+		
+		public double getFitness() {
+			return fitness;
+		}
+		
+		public boolean isConverged() {
+			return converged;
+		}
+		
+		@Override
+		public String toString() {
+			return "generations: " + generations + " (last improvement after " + improved + "), best allocation: "
+					+ Arrays.toString(resources) + ", cost: " + cost + ", fitness: " + fitness;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package ga_engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.random.RandomGenerator;
+
+import org.junit.jupiter.api.Test;
+
+class GeneticEngineTest {
+
+    private static final int POPULATION_SIZE = 200;
+    private static final int SLICES = 8;
+
+    // One child per crossover, half the population replaced: the parents of a generation
+    // take exactly one pass over the SUS pool
+    @Test
+    void slicesUseEveryPoolSlotOnce() {
+        CountingSampling sampling = new CountingSampling();
+        GeneticEngine<Vector> engine = newEngine(sampling, 1);
+        for (int generation = 0; generation < 20; generation++) {
+            engine.step();
+            for (int slot = 0; slot < POPULATION_SIZE; slot++) {
+                assertEquals(1, sampling.uses.get(slot), "slot " + slot + " in generation " + generation);
+            }
+        }
+    }
+
+    // Two children per crossover with odd slice shares: no slot is read twice
+    @Test
+    void slicesDoNotShareSlotsWithTwoChildCrossover() {
+        CountingSampling sampling = new CountingSampling();
+        GeneticEngine<Vector> engine = newEngine(sampling, 2);
+        for (int generation = 0; generation < 20; generation++) {
+            engine.step();
+            int used = 0;
+            for (int slot = 0; slot < POPULATION_SIZE; slot++) {
+                assertTrue(sampling.uses.get(slot) <= 1, "slot " + slot + " in generation " + generation);
+                used += sampling.uses.get(slot);
+            }
+            // 8 slices of 12 or 13 children, 6 or 7 crossovers each
+            assertEquals(104, used);
+        }
+    }
+
+    private static GeneticEngine<Vector> newEngine(Selection<Vector> selection, int children) {
+        GeneticEngine<Vector> engine = new GeneticEngine<>(POPULATION_SIZE, Vector::new, Vector::sum, selection,
+                (parent1, parent2, child1, child2, random) -> {
+                    for (int i = 0; i < Vector.LENGTH; i++) {
+                        boolean mask = random.nextBoolean();
+                        child1.genes[i] = mask ? parent1.genes[i] : parent2.genes[i];
+                        child2.genes[i] = mask ? parent2.genes[i] : parent1.genes[i];
+                    }
+                    return children;
+                }, new ElitistReplacement<>(0.5));
+        engine.setRandom(new SplitMixRandom(42));
+        engine.setBreedingSlices(SLICES);
+        engine.setPooling(true);
+        return engine;
+    }
+
+    // Counts how often each pool slot is handed out in the current generation
+    private static final class CountingSampling extends StochasticUniversalSampling<Vector> {
+
+        private final AtomicIntegerArray uses = new AtomicIntegerArray(POPULATION_SIZE);
+
+        @Override
+        public void prepare(Population<Vector> population, RandomGenerator random) {
+            super.prepare(population, random);
+            for (int slot = 0; slot < POPULATION_SIZE; slot++) {
+                uses.set(slot, 0);
+            }
+        }
+
+        @Override
+        public int selectIndex(Population<Vector> population, RandomGenerator random, int draw) {
+            uses.incrementAndGet(Integer.remainderUnsigned(draw, POPULATION_SIZE));
+            return super.selectIndex(population, random, draw);
+        }
+
+    }
+
+    private static final class Vector implements Genome {
+
+        static final int LENGTH = 8;
+
+        final double[] genes = new double[LENGTH];
+
+        Vector(RandomGenerator random) {
+            for (int i = 0; i < LENGTH; i++) {
+                genes[i] = random.nextDouble();
+            }
+        }
+
+        private Vector(double[] genes) {
+            System.arraycopy(genes, 0, this.genes, 0, LENGTH);
+        }
+
+        double sum() {
+            double sum = 0;
+            for (double gene : genes) {
+                sum += gene;
+            }
+            return sum;
+        }
+
+        @Override
+        public int length() {
+            return LENGTH;
+        }
+
+        @Override
+        public Vector copy() {
+            return new Vector(genes);
+        }
+
+    }
+
+}
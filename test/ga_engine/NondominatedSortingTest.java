@@ -0,0 +1,86 @@
+package ga_engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class NondominatedSortingTest {
+
+    private static final double[] LEVELS = {-1.5, -1, -0.0, 0.0, 0.5, 1, 2};
+
+    // ENS-BS fronts against the naive pairwise sort on random objective sets, with many
+    // ties and both signed zeros
+    @Test
+    void sortMatchesPairwiseSort() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 2000; round++) {
+            int objectives = 2 + random.nextInt(3);
+            int n = 1 + random.nextInt(120);
+            double[] values = new double[n * objectives];
+            for (int i = 0; i < values.length; i++) {
+                // Either a coarse level (ties, signed zeros) or a fine one
+                values[i] = random.nextBoolean() ? LEVELS[random.nextInt(LEVELS.length)] : random.nextDouble();
+            }
+            int[] rank = new int[n];
+            int fronts = new NondominatedSorting(objectives).sort(values, n, rank);
+            int[] expected = naive(values, n, objectives);
+            String input = "round " + round + ", " + objectives + " objectives: " + Arrays.toString(values);
+            assertArrayEquals(expected, rank, input);
+            assertEquals(Arrays.stream(expected).max().getAsInt() + 1, fronts, input);
+        }
+    }
+
+    // Peel the fronts off by pairwise dominance counts, O(M N^2)
+    private static int[] naive(double[] values, int n, int objectives) {
+        int[] dominators = new int[n];
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (dominates(values, objectives, b, a)) {
+                    dominators[a]++;
+                }
+            }
+        }
+        int[] rank = new int[n];
+        Arrays.fill(rank, -1);
+        int assigned = 0;
+        for (int front = 0; assigned < n; front++) {
+            int[] current = new int[n];
+            int size = 0;
+            for (int a = 0; a < n; a++) {
+                if (rank[a] == -1 && dominators[a] == 0) {
+                    current[size++] = a;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                rank[current[i]] = front;
+                assigned++;
+            }
+            for (int i = 0; i < size; i++) {
+                for (int b = 0; b < n; b++) {
+                    if (dominates(values, objectives, current[i], b)) {
+                        dominators[b]--;
+                    }
+                }
+            }
+        }
+        return rank;
+    }
+
+    private static boolean dominates(double[] values, int objectives, int a, int b) {
+        boolean better = false;
+        for (int i = 0; i < objectives; i++) {
+            double x = values[a * objectives + i];
+            double y = values[b * objectives + i];
+            if (x < y) {
+                return false;
+            }
+            better |= x > y;
+        }
+        return better;
+    }
+
+}
@@ -0,0 +1,85 @@
+package ga_engine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class PopulationTest {
+
+    // selectBest against a full sort, with many ties and the ordered inputs that push
+    // introselect into its sorting fallback
+    @Test
+    void selectBestMatchesFullSort() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 3000; round++) {
+            int n = 1 + random.nextInt(300);
+            double[] values = new double[n];
+            int shape = random.nextInt(5);
+            for (int i = 0; i < n; i++) {
+                switch (shape) {
+                    case 0 -> values[i] = random.nextDouble();
+                    case 1 -> values[i] = random.nextInt(4);
+                    case 2 -> values[i] = i;
+                    case 3 -> values[i] = n - i;
+                    default -> values[i] = Math.min(i, n - i);
+                }
+            }
+            int k = random.nextInt(n + 1);
+            List<Individual<Point>> individuals = new ArrayList<>(n);
+            for (double value : values) {
+                Individual<Point> individual = new Individual<>(new Point());
+                individual.setFitness(value);
+                individuals.add(individual);
+            }
+            Population<Point> population = new Population<>(new ArrayList<>(individuals));
+            population.selectBest(k);
+            String input = "round " + round + ", n = " + n + ", k = " + k;
+
+            // Still the same individuals, each exactly once
+            IdentityHashMap<Individual<Point>, Boolean> seen = new IdentityHashMap<>();
+            for (int i = 0; i < population.size(); i++) {
+                seen.put(population.get(i), Boolean.TRUE);
+            }
+            assertEquals(n, population.size(), input);
+            assertEquals(n, seen.size(), input);
+            assertTrue(seen.keySet().containsAll(individuals), input);
+
+            // Slots 0..k-1 hold the k largest fitness values
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double[] selected = new double[k];
+            for (int i = 0; i < k; i++) {
+                selected[i] = population.get(i).getFitness();
+            }
+            Arrays.sort(selected);
+            assertArrayEquals(Arrays.copyOfRange(sorted, n - k, n), selected, input);
+
+            // The heaps were rebuilt over the new slot order
+            assertEquals(sorted[n - 1], population.getBest().getFitness(), input);
+            assertEquals(sorted[0], population.getWorst().getFitness(), input);
+        }
+    }
+
+    private static final class Point implements Genome {
+
+        @Override
+        public int length() {
+            return 0;
+        }
+
+        @Override
+        public Point copy() {
+            return new Point();
+        }
+
+    }
+
+}
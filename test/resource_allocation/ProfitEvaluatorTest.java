@@ -0,0 +1,69 @@
+package resource_allocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ProfitEvaluatorTest {
+
+    // The division-based packer against the unit-at-a-time loop it replaced, on random
+    // products (price-sorted as Manager does) and allocations
+    @Test
+    void matchesUnitAtATimePacking() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int round = 0; round < 20000; round++) {
+            int n = 1 + random.nextInt(6);
+            Product[] products = new Product[1 + random.nextInt(8)];
+            for (int p = 0; p < products.length; p++) {
+                int[] needs = new int[n];
+                for (int j = 0; j < n; j++) {
+                    needs[j] = random.nextInt(6);
+                }
+                // The old loop never ends on a product that needs nothing
+                needs[random.nextInt(n)] += 1;
+                products[p] = new Product(needs, 1 + random.nextInt(100) + random.nextDouble());
+            }
+            Arrays.sort(products, Comparator.comparingDouble(Product::getPrice).reversed());
+            int[] resources = new int[n];
+            for (int j = 0; j < n; j++) {
+                resources[j] = random.nextInt(60);
+            }
+
+            double[] packed = new ProfitEvaluator(products, n).evaluate(resources);
+            double[] expected = pack(products, resources);
+            String input = "round " + round + ", resources " + Arrays.toString(resources);
+            assertEquals(expected[0], packed[0], 1e-9 * Math.max(1, expected[0]), input);
+            assertEquals(expected[1], packed[1], input);
+        }
+    }
+
+    // The original evalProfit: build the most expensive product while it fits, one unit at a time
+    private static double[] pack(Product[] products, int[] resources) {
+        double profit = 0.0;
+        int[] left = resources.clone();
+        for (Product product : products) {
+            int[] needed = product.getNeededResources();
+            while (fits(needed, left)) {
+                for (int j = 0; j < left.length; j++) {
+                    left[j] -= needed[j];
+                }
+                profit += product.getPrice();
+            }
+        }
+        return new double[] {profit, Arrays.stream(left).sum()};
+    }
+
+    private static boolean fits(int[] needed, int[] available) {
+        for (int j = 0; j < available.length; j++) {
+            if (available[j] - needed[j] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}